@@ -0,0 +1,52 @@
+package com.list.benchmarks;
+
+import com.list.TreeList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures appending elements one at a time to an empty list, the way logs and event buffers are filled,
+ * for a TreeList against an ArrayList which grows its array as it goes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AppendBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private Integer[] values;
+
+    @Setup
+    public void setUp() {
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+    }
+
+    @Benchmark
+    public List<Integer> treeListAppend() {
+        List<Integer> list = new TreeList<>();
+        for (Integer value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> arrayListAppend() {
+        List<Integer> list = new ArrayList<>();
+        for (Integer value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,48 @@
+package com.list.benchmarks;
+
+import com.list.TreeList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building a TreeList bottom up from a collection
+ * with adding the same elements one at a time
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BulkLoadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<Integer> values;
+
+    @Setup
+    public void setUp() {
+        values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(i);
+        }
+    }
+
+    @Benchmark
+    public TreeList<Integer> addLoop() {
+        TreeList<Integer> list = new TreeList<>();
+        for (Integer value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public TreeList<Integer> bulkLoad() {
+        return new TreeList<>(values);
+    }
+}
@@ -0,0 +1,73 @@
+package com.list.benchmarks;
+
+import com.list.ConcurrentTreeList;
+import com.list.TreeList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ConcurrentTreeList with a TreeList wrapped by Collections.synchronizedList
+ * when several threads share the list with a given share of writes
+ * A write inserts at a random index or removes from one, alternating per thread, so the size stays put
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentListBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    //percentage of operations which write, for read/write ratios of 99/1, 90/10 and 50/50
+    @Param({"1", "10", "50"})
+    private int writePercent;
+
+    @Param({"ConcurrentTreeList", "SynchronizedTreeList"})
+    private String type;
+
+    private List<Integer> list;
+
+    @Setup
+    public void setUp() {
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(i);
+        }
+        list = "ConcurrentTreeList".equals(type)
+                ? new ConcurrentTreeList<>(values)
+                : Collections.synchronizedList(new TreeList<>(values));
+    }
+
+    /**
+     * Whether the next write of a thread inserts or removes
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+        private boolean insert;
+    }
+
+    @Benchmark
+    public Integer readOrWrite(Writer writer) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        //staying clear of the end as other threads may have removed an element
+        final int index = random.nextInt(size - 64);
+        if (random.nextInt(100) >= writePercent) {
+            return list.get(index);
+        }
+        writer.insert = !writer.insert;
+        if (writer.insert) {
+            list.add(index, index);
+            return index;
+        }
+        return list.remove(index);
+    }
+}
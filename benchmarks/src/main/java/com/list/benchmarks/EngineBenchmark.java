@@ -0,0 +1,94 @@
+package com.list.benchmarks;
+
+import com.list.TreeList;
+import com.list.structure.ArrayRedBlackTree;
+import com.list.structure.AvlTree;
+import com.list.structure.ChunkedTree;
+import com.list.structure.PersistentRedBlackTree;
+import com.list.structure.Treap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the red black tree engine with the array backed, chunked, persistent, AVL and treap engines
+ * on iteration, random access and inserts in the middle, to pick an engine for a workload
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"redBlack", "array", "chunked", "persistent", "avl", "treap"})
+    private String engine;
+
+    private TreeList<Integer> list;
+    private int[] indexes;
+
+    @Setup
+    public void setUp() {
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(i);
+        }
+        switch (engine) {
+            case "array":
+                list = new TreeList<>(new ArrayRedBlackTree<Integer>());
+                break;
+            case "chunked":
+                list = new TreeList<>(new ChunkedTree<Integer>());
+                break;
+            case "persistent":
+                list = new TreeList<>(new PersistentRedBlackTree<Integer>());
+                break;
+            case "avl":
+                list = new TreeList<>(new AvlTree<Integer>());
+                break;
+            case "treap":
+                list = new TreeList<>(new Treap<Integer>(42));
+                break;
+            default:
+                list = new TreeList<>();
+        }
+        list.addAll(values);
+        Random random = new Random(42);
+        indexes = new int[1024];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Integer value : list) {
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void randomGet(Blackhole blackhole) {
+        for (int index : indexes) {
+            blackhole.consume(list.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void insertAndRemoveInMiddle() {
+        for (int index : indexes) {
+            list.add(index, index);
+            list.remove(index);
+        }
+    }
+}
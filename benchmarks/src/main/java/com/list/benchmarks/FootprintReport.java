@@ -0,0 +1,48 @@
+package com.list.benchmarks;
+
+import com.list.IntTreeList;
+import com.list.TreeList;
+import com.list.structure.ArrayRedBlackTree;
+import com.list.structure.ChunkedTree;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Prints the heap taken per element by each list, not counting the elements themselves
+ * Run with java -cp target/benchmarks.jar com.list.benchmarks.FootprintReport [size]
+ */
+public class FootprintReport {
+
+    public static void main(String[] args) {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        final List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(i);
+        }
+        final long elements = GraphLayout.parseInstance(values.toArray()).totalSize();
+
+        report("TreeList", new TreeList<>(values), elements, size);
+        report("TreeList (appended)", appended(new TreeList<Integer>(), values), elements, size);
+        report("TreeList (array)", appended(new TreeList<>(new ArrayRedBlackTree<Integer>()), values), elements, size);
+        report("TreeList (chunked)", appended(new TreeList<>(new ChunkedTree<Integer>()), values), elements, size);
+        report("ArrayList", new ArrayList<>(values), elements, size);
+        report("LinkedList", new LinkedList<>(values), elements, size);
+        //the int values live inside the leaves, so there are no separate elements to leave out
+        report("IntTreeList", appended(new IntTreeList(), values), 0, size);
+    }
+
+    private static List<Integer> appended(List<Integer> list, List<Integer> values) {
+        for (Integer value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    private static void report(String name, List<Integer> list, long elements, int size) {
+        final long total = GraphLayout.parseInstance(list).totalSize() - elements;
+        System.out.printf("%-22s %8.2f bytes per element%n", name, (double) total / size);
+    }
+}
@@ -0,0 +1,134 @@
+package com.list.benchmarks;
+
+import com.list.TreeList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares TreeList with ArrayList, LinkedList and the Commons Collections TreeList
+ * on the common list operations
+ * The operations which change the size of the list undo themselves at the end,
+ * by removing or appending at the end, so every invocation sees a list of the same size
+ * Run with -prof gc to see the allocation rate next to the throughput
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ListBenchmark {
+    private static final int SUB_LIST_SIZE = 64;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"TreeList", "ArrayList", "LinkedList", "CommonsTreeList"})
+    private String type;
+
+    private List<Integer> list;
+    private int[] indexes;
+    private Integer[] targets; //the values at the indexes, boxed up front so the benchmarks do not allocate them
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(i);
+        }
+        switch (type) {
+            case "TreeList":
+                list = new TreeList<>(values);
+                break;
+            case "ArrayList":
+                list = new ArrayList<>(values);
+                break;
+            case "LinkedList":
+                list = new LinkedList<>(values);
+                break;
+            case "CommonsTreeList":
+                list = new org.apache.commons.collections4.list.TreeList<>(values);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown list type " + type);
+        }
+        Random random = new Random(42);
+        indexes = new int[1024];
+        targets = new Integer[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = random.nextInt(size);
+            targets[i] = values.get(indexes[i]);
+        }
+    }
+
+    /**
+     * Returns the next of the random indexes chosen at set up
+     * @return an index within the list
+     */
+    private int nextIndex() {
+        next = (next + 1) & (indexes.length - 1);
+        return indexes[next];
+    }
+
+    @Benchmark
+    public Integer get() {
+        return list.get(nextIndex());
+    }
+
+    @Benchmark
+    public Integer set() {
+        return list.set(nextIndex(), targets[next]);
+    }
+
+    @Benchmark
+    public Integer addAtIndex() {
+        list.add(nextIndex(), targets[next]);
+        return list.remove(list.size() - 1);
+    }
+
+    @Benchmark
+    public boolean removeAtIndex() {
+        return list.add(list.remove(nextIndex()));
+    }
+
+    @Benchmark
+    public Integer append() {
+        list.add(targets[next]);
+        return list.remove(list.size() - 1);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Integer value : list) {
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public int indexOf() {
+        nextIndex();
+        return list.indexOf(targets[next]);
+    }
+
+    @Benchmark
+    public int subList() {
+        final int from = Math.min(nextIndex(), size - SUB_LIST_SIZE);
+        int sum = 0;
+        for (Integer value : list.subList(from, from + SUB_LIST_SIZE)) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Object[] toArray() {
+        return list.toArray();
+    }
+}
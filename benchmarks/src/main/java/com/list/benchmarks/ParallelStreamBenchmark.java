@@ -0,0 +1,62 @@
+package com.list.benchmarks;
+
+import com.list.TreeList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+/**
+ * Measures parallelStream().mapToLong(...).sum() over a TreeList with its own spliterator,
+ * against the same list through the iterator based spliterator List used to inherit, and an ArrayList
+ * Run it on a machine with several cores, a single core shows no gain from splitting
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelStreamBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    private int size;
+
+    private TreeList<Integer> treeList;
+    private List<Integer> arrayList;
+
+    @Setup
+    public void setUp() {
+        arrayList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            arrayList.add(i);
+        }
+        treeList = new TreeList<>(arrayList);
+    }
+
+    @Benchmark
+    public long treeListSequential() {
+        return treeList.stream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long treeListParallel() {
+        return treeList.parallelStream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long treeListIteratorSpliterator() {
+        //what List.spliterator does for a list which is not RandomAccess, splitting by copying batches into arrays
+        return StreamSupport.stream(Spliterators.spliterator(treeList, Spliterator.ORDERED), true)
+                .mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long arrayListParallel() {
+        return arrayList.parallelStream().mapToLong(Integer::longValue).sum();
+    }
+}
@@ -0,0 +1,597 @@
+package com.list;
+
+import com.list.structure.RedBlackTree;
+
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread safe list on top of a red black tree, guarded by a StampedLock
+ * get, size, toArray and iteration read the tree optimistically without locking and only
+ * take the read lock if a write ran at the same time, so readers do not block each other
+ * Writes take the write lock
+ * Iterators read the list in windows of up to 64 values, each read like toArray, so taking one and
+ * stepping through the first values costs O(logN) and not a copy of the whole list. Each window is
+ * consistent in itself, and later windows see the writes which ran since the earlier ones were read
+ */
+public class ConcurrentTreeList<E extends Comparable<E>> extends AbstractList<E> {
+    private final RedBlackTree<E> tree = new RedBlackTree<>();
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Constructor to initialize the list
+     */
+    public ConcurrentTreeList(){
+    }
+
+    /**
+     * Constructor to initialize the list with the elements of the collection
+     * in the order returned by its iterator
+     * Takes O(N) as the tree is built bottom up
+     * @param c the collection whose elements are placed in the list
+     * @throws NullPointerException if an element is null
+     */
+    public ConcurrentTreeList(Collection<? extends E> c) throws NullPointerException {
+        addAll(c);
+    }
+
+    /**
+     * Returns the number of elements in the list
+     * @return the number of items
+     */
+    @Override
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int size = tree.size();
+        if (lock.validate(stamp)) {
+            return size;
+        }
+        stamp = lock.readLock();
+        try {
+            return tree.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns true if the list is empty
+     * @return true if the list is empty
+     */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Gets the value at the specified index
+     * Takes O(logN) and only locks if a write runs at the same time
+     * @param index whose value is needed
+     * @return Value at the given index
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    @Override
+    public E get(int index) throws IndexOutOfBoundsException {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            final int size = tree.size();
+            final E value = index >= 0 && index < size ? tree.peek(index) : null;
+            if (lock.validate(stamp)) {
+                checkIndex(index, size);
+                return value;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            checkIndex(index, tree.size());
+            //get moves the finger of the tree, which readers holding the lock together must not do
+            return tree.peek(index);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Sets the given element at the given index
+     * @param index the location where to set the element
+     * @param element the element to set it with
+     * @return The value that the element replaced
+     * @throws NullPointerException if element is null
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    @Override
+    public E set(int index, E element) throws NullPointerException,IndexOutOfBoundsException {
+        if (element == null){
+            throw new NullPointerException("Given element is null");
+        }
+        final long stamp = lock.writeLock();
+        try {
+            checkIndex(index, tree.size());
+            return tree.set(index, element);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds an element to the end of the list
+     * @param o the object to be added
+     * @return true if added successfully
+     * @throws NullPointerException if element is null
+     */
+    @Override
+    public boolean add(E o) throws NullPointerException {
+        if (o == null){
+            throw new NullPointerException("Given element is null");
+        }
+        final long stamp = lock.writeLock();
+        try {
+            tree.add(o);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds a element at the given index and moves the remaining elements to the next cell
+     * @param index the index at with element has to be added
+     * @param element the element to be added at
+     * @throws NullPointerException if element is null
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    @Override
+    public void add(int index, E element) throws NullPointerException,IndexOutOfBoundsException {
+        if (element == null){
+            throw new NullPointerException("Given element is null");
+        }
+        final long stamp = lock.writeLock();
+        try {
+            checkIndex(index, tree.size() + 1);
+            tree.add(index, element);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds all the elements of the collection at the given index
+     * The elements are copied before the lock is taken
+     * @param index the index at which to add the first element
+     * @param c the collection of elements to add
+     * @return true if the list changed
+     * @throws NullPointerException if an element is null
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) throws NullPointerException,IndexOutOfBoundsException {
+        final List<E> values = new ArrayList<>(c);
+        if (values.contains(null)){
+            throw new NullPointerException("Given element is null");
+        }
+        final long stamp = lock.writeLock();
+        try {
+            checkIndex(index, tree.size() + 1);
+            tree.insertAll(index, values);
+            return !values.isEmpty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds all the elements of the collection to the end of the list
+     * @param c the collection of elements to add
+     * @return true if the list changed
+     * @throws NullPointerException if an element is null
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) throws NullPointerException {
+        final List<E> values = new ArrayList<>(c);
+        if (values.contains(null)){
+            throw new NullPointerException("Given element is null");
+        }
+        final long stamp = lock.writeLock();
+        try {
+            tree.insertAll(tree.size(), values);
+            return !values.isEmpty();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the element from the list
+     * @param index the index at which element needs to be removed
+     * @return the value at the given index
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    @Override
+    public E remove(int index) throws IndexOutOfBoundsException {
+        final long stamp = lock.writeLock();
+        try {
+            checkIndex(index, tree.size());
+            return tree.remove(index);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the first occurrence of the element from the list
+     * @param o The object to be removed
+     * @return true if removed
+     * @throws NullPointerException if element is null
+     */
+    @Override
+    public boolean remove(Object o) throws NullPointerException {
+        if (o == null){
+            throw new NullPointerException("Given element is null");
+        }
+        final long stamp = lock.writeLock();
+        try {
+            final int index = tree.getIndex(o);
+            if (index == -1){
+                return false;
+            }
+            tree.remove(index);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Clears the list
+     */
+    @Override
+    public void clear() {
+        final long stamp = lock.writeLock();
+        try {
+            tree.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the elements from fromIndex, inclusive, to toIndex, exclusive, which subList(..).clear() goes through
+     * Takes O(logN) as the tree cuts the range out and joins the two ends back
+     * @param fromIndex the index of the first element to remove
+     * @param toIndex the index after the last element to remove
+     * @throws IndexOutOfBoundsException if the range is out of bounds of the array
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) throws IndexOutOfBoundsException {
+        final long stamp = lock.writeLock();
+        try {
+            if (fromIndex < 0 || toIndex > tree.size() || fromIndex > toIndex){
+                throw new IndexOutOfBoundsException("index is out of bounds");
+            }
+            tree.deleteRange(fromIndex, toIndex);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes every element the filter matches under the write lock
+     * The filter must not use the list, as the lock is not reentrant
+     * @param filter the filter picking the elements to remove
+     * @return true if any element was removed
+     * @throws NullPointerException if filter is null
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) throws NullPointerException {
+        if (filter == null){
+            throw new NullPointerException("Given filter is null");
+        }
+        final long stamp = lock.writeLock();
+        try {
+            return tree.removeIf(filter);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes every element which is in the collection
+     * @param c the collection of elements to remove
+     * @return true if any element was removed
+     * @throws NullPointerException if c is null
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) throws NullPointerException {
+        if (c == null){
+            throw new NullPointerException("Given collection is null");
+        }
+        return removeIf(c::contains);
+    }
+
+    /**
+     * Removes every element which is not in the collection
+     * @param c the collection of elements to keep
+     * @return true if any element was removed
+     * @throws NullPointerException if c is null
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) throws NullPointerException {
+        if (c == null){
+            throw new NullPointerException("Given collection is null");
+        }
+        return removeIf(value -> !c.contains(value));
+    }
+
+    /**
+     * Replaces every element with the result of the operator under the write lock
+     * The operator must not use the list, as the lock is not reentrant
+     * @param operator the operator to apply to each element
+     * @throws NullPointerException if operator is null or returns null
+     */
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) throws NullPointerException {
+        if (operator == null){
+            throw new NullPointerException("Given operator is null");
+        }
+        final long stamp = lock.writeLock();
+        try {
+            tree.replaceAll(value -> {
+                final E replacement = operator.apply(value);
+                if (replacement == null){
+                    throw new NullPointerException("Given element is null");
+                }
+                return replacement;
+            });
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sorts the list under the write lock
+     * The elements are copied out, sorted and built back into a tree bottom up, which takes O(NlogN)
+     * The comparator must not use the list, as the lock is not reentrant
+     * @param c the comparator, or null to sort by the natural order
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> c) {
+        final long stamp = lock.writeLock();
+        try {
+            final Object[] elements = new Object[tree.size()];
+            tree.copyTo(elements);
+            final List<E> values = (List<E>) (List<?>) Arrays.asList(elements);
+            values.sort(c);
+            tree.load(values);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gives the first occurrence of o
+     * Scans the list under the read lock
+     * @param o the object to search for
+     * @return the first index found to have the value o
+     * @throws NullPointerException if o is null
+     */
+    @Override
+    public int indexOf(Object o) throws NullPointerException {
+        if (o == null){
+            throw new NullPointerException("Given element is null");
+        }
+        final long stamp = lock.readLock();
+        try {
+            return tree.getIndex(o);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the last occurrence of o
+     * Scans the list under the read lock
+     * @param o the object
+     * @return the last index where o was found
+     * @throws NullPointerException if o is null
+     */
+    @Override
+    public int lastIndexOf(Object o) throws NullPointerException {
+        if (o == null){
+            throw new NullPointerException("Given element is null");
+        }
+        final long stamp = lock.readLock();
+        try {
+            return tree.getLastIndex(o);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns true if the object is within the list
+     * @param o the object to check for
+     * @return true if it is found
+     * @throws NullPointerException if element is null
+     */
+    @Override
+    public boolean contains(Object o) throws NullPointerException {
+        return indexOf(o) != -1;
+    }
+
+    /**
+     * Returns the elements of the list as an array
+     * The tree is copied optimistically and only locks if a write runs at the same time
+     * @return array of elements
+     */
+    @Override
+    public Object[] toArray() {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            final Object[] elements = new Object[tree.size()];
+            final boolean filled = tree.peekAll(elements);
+            if (lock.validate(stamp) && filled) {
+                return elements;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            final Object[] elements = new Object[tree.size()];
+            tree.peekAll(elements);
+            return elements;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns an iterator which reads the list in windows of values
+     * The iterator does not support remove, see listIterator
+     * @return Iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new WindowIterator(0);
+    }
+
+    /**
+     * Returns a list iterator which reads the list in windows of up to 64 values from the given index
+     * Each window is read optimistically like toArray, in O(logN) plus its length, and is consistent in itself.
+     * The first window is read when the iterator is created, and each later one when the iterator
+     * steps out of the last, so it sees the writes which ran in between at the indexes it reads next
+     * The iterator does not support changing the list
+     * @param index the index of the first element to be returned by next
+     * @return ListIterator
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    @Override
+    public ListIterator<E> listIterator(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, size() + 1);
+        return new WindowIterator(index);
+    }
+
+    /**
+     * Reads the values from the given index, inclusive, up to the given index, exclusive, or the end of the list
+     * The tree is read optimistically and only locks if a write runs at the same time
+     * @param from the index of the first value
+     * @param to the index after the last value wanted
+     * @return the values, fewer than asked for if the list ends first
+     */
+    private Object[] window(int from, int to) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            final Object[] values = new Object[Math.max(0, Math.min(to, tree.size()) - from)];
+            final boolean filled = values.length == 0 || tree.peekRange(from, values);
+            if (lock.validate(stamp) && filled) {
+                return values;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            final Object[] values = new Object[Math.max(0, Math.min(to, tree.size()) - from)];
+            if (values.length > 0) {
+                tree.peekRange(from, values);
+            }
+            return values;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * List iterator which holds one window of values at a time and reads the next one as it steps out of it
+     */
+    private final class WindowIterator implements ListIterator<E> {
+        private static final int WINDOW = 64;
+
+        private Object[] values;
+        private int start; //index of the first value of the window
+        private int cursor;
+
+        WindowIterator(int index) {
+            cursor = index;
+            start = index;
+            values = window(index, index + WINDOW);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (cursor - start >= 0 && cursor - start < values.length) {
+                return true;
+            }
+            start = cursor;
+            values = window(cursor, cursor + WINDOW);
+            return values.length > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return (E) values[cursor++ - start];
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            if (cursor == 0) {
+                return false;
+            }
+            if (cursor - 1 - start >= 0 && cursor - 1 - start < values.length) {
+                return true;
+            }
+            start = Math.max(0, cursor - WINDOW);
+            values = window(start, cursor);
+            return cursor - 1 - start < values.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            return (E) values[--cursor - start];
+        }
+
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove is not supported by ConcurrentTreeList iterators");
+        }
+
+        @Override
+        public void set(E e) {
+            throw new UnsupportedOperationException("set is not supported by ConcurrentTreeList iterators");
+        }
+
+        @Override
+        public void add(E e) {
+            throw new UnsupportedOperationException("add is not supported by ConcurrentTreeList iterators");
+        }
+    }
+
+    /**
+     * Checks that the index lies within the given bound
+     * @param index the index to check
+     * @param bound the first index which is out of bounds
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    private static void checkIndex(int index, int bound) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("index is out of bounds");
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.list;
+
+import com.list.structure.DoubleChunkedTree;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * List of double values with the same O(logN) positional operations as TreeList
+ * The values are kept unboxed in the leaves of a counted B+ tree, so the primitive methods
+ * such as getDouble, addDouble and removeAt neither allocate nor chase a reference per element
+ * The methods of List work as well, boxing at the boundary
+ */
+public class DoubleTreeList extends PrimitiveTreeList<Double> {
+    private final DoubleChunkedTree tree = new DoubleChunkedTree();
+
+    /**
+     * Constructor to initialize the list
+     */
+    public DoubleTreeList(){
+        super(Double.class);
+    }
+
+    /**
+     * Constructor to initialize the list with the given values
+     * Takes O(N) as the tree is built bottom up
+     * @param values the values to place in the list
+     */
+    public DoubleTreeList(double... values){
+        super(Double.class);
+        tree.load(values);
+    }
+
+    /**
+     * Returns the number of elements in the list
+     * @return the number of items
+     */
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    /**
+     * Gets the value at the specified index without boxing
+     * Takes O(logN)
+     * @param index whose value is needed
+     * @return Value at the given index
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    public double getDouble(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        return tree.getDouble(index);
+    }
+
+    /**
+     * Sets the given value at the given index without boxing
+     * @param index the location where to set the value
+     * @param value the value to set it with
+     * @return The value that the new one replaced
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    public double setDouble(int index, double value) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        return tree.setDouble(index, value);
+    }
+
+    /**
+     * Adds a value to the end of the list without boxing
+     * @param value the value to be added
+     */
+    public void addDouble(double value) {
+        tree.addDouble(size(), value);
+        modCount++;
+    }
+
+    /**
+     * Adds a value at the given index without boxing and moves the remaining values to the next cell
+     * @param index the index at which the value has to be added
+     * @param value the value to be added
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    public void addDouble(int index, double value) throws IndexOutOfBoundsException {
+        checkIndex(index, size() + 1);
+        tree.addDouble(index, value);
+        modCount++;
+    }
+
+    /**
+     * Removes the value at the given index without boxing
+     * @param index the index at which the value needs to be removed
+     * @return the value at the given index
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    public double removeAt(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        modCount++;
+        return tree.removeDouble(index);
+    }
+
+    /**
+     * Gives the first occurrence of the value, comparing like Double.equals
+     * @param value the value to search for
+     * @return the first index found to have the value or -1
+     */
+    public int indexOf(double value) {
+        return tree.indexOf(value);
+    }
+
+    /**
+     * Returns true if the value is within the list
+     * @param value the value to check for
+     * @return true if it is found
+     */
+    public boolean contains(double value) {
+        return tree.indexOf(value) != -1;
+    }
+
+    /**
+     * Returns the values of the list as a double array
+     * @return array of values
+     */
+    public double[] toDoubleArray() {
+        return tree.toArray();
+    }
+
+    /**
+     * Returns an iterator over the values which does not box them
+     * The iterator does not support remove, which removeIf, removeAll and retainAll do without it
+     * @return PrimitiveIterator.OfDouble
+     */
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return tree.iterator();
+    }
+
+    /**
+     * Returns a sequential DoubleStream over the values
+     * @return DoubleStream
+     */
+    public DoubleStream doubleStream() {
+        return StreamSupport.doubleStream(
+                Spliterators.spliterator(tree.iterator(), size(), Spliterator.ORDERED), false);
+    }
+
+    @Override
+    Double element(int index) {
+        return tree.getDouble(index);
+    }
+
+    @Override
+    Double replace(int index, Double element) {
+        return tree.setDouble(index, element);
+    }
+
+    @Override
+    void insert(int index, Double element) {
+        tree.addDouble(index, element);
+    }
+
+    @Override
+    Double delete(int index) {
+        return tree.removeDouble(index);
+    }
+
+    @Override
+    int search(Double element) {
+        return tree.indexOf(element);
+    }
+
+    /**
+     * Clears the list
+     */
+    @Override
+    public void clear() {
+        tree.clear();
+        modCount++;
+    }
+
+    /**
+     * Removes every element the filter matches
+     * The values which are kept are copied into an array and the tree is built again from it in O(N)
+     * @param filter the filter picking the elements to remove
+     * @return true if any element was removed
+     * @throws NullPointerException if filter is null
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Double> filter) throws NullPointerException {
+        if (filter == null){
+            throw new NullPointerException("Given filter is null");
+        }
+        final double[] values = tree.toArray();
+        int kept = 0;
+        for (double value : values) {
+            if (!filter.test(value)) {
+                values[kept++] = value;
+            }
+        }
+        if (kept == values.length) {
+            return false;
+        }
+        tree.load(Arrays.copyOf(values, kept));
+        modCount++;
+        return true;
+    }
+}
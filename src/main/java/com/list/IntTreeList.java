@@ -0,0 +1,210 @@
+package com.list;
+
+import com.list.structure.IntChunkedTree;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * List of int values with the same O(logN) positional operations as TreeList
+ * The values are kept unboxed in the leaves of a counted B+ tree, so the primitive methods
+ * such as getInt, addInt and removeAt neither allocate nor chase a reference per element
+ * The methods of List work as well, boxing at the boundary
+ */
+public class IntTreeList extends PrimitiveTreeList<Integer> {
+    private final IntChunkedTree tree = new IntChunkedTree();
+
+    /**
+     * Constructor to initialize the list
+     */
+    public IntTreeList(){
+        super(Integer.class);
+    }
+
+    /**
+     * Constructor to initialize the list with the given values
+     * Takes O(N) as the tree is built bottom up
+     * @param values the values to place in the list
+     */
+    public IntTreeList(int... values){
+        super(Integer.class);
+        tree.load(values);
+    }
+
+    /**
+     * Returns the number of elements in the list
+     * @return the number of items
+     */
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    /**
+     * Gets the value at the specified index without boxing
+     * Takes O(logN)
+     * @param index whose value is needed
+     * @return Value at the given index
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    public int getInt(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        return tree.getInt(index);
+    }
+
+    /**
+     * Sets the given value at the given index without boxing
+     * @param index the location where to set the value
+     * @param value the value to set it with
+     * @return The value that the new one replaced
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    public int setInt(int index, int value) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        return tree.setInt(index, value);
+    }
+
+    /**
+     * Adds a value to the end of the list without boxing
+     * @param value the value to be added
+     */
+    public void addInt(int value) {
+        tree.addInt(size(), value);
+        modCount++;
+    }
+
+    /**
+     * Adds a value at the given index without boxing and moves the remaining values to the next cell
+     * @param index the index at which the value has to be added
+     * @param value the value to be added
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    public void addInt(int index, int value) throws IndexOutOfBoundsException {
+        checkIndex(index, size() + 1);
+        tree.addInt(index, value);
+        modCount++;
+    }
+
+    /**
+     * Removes the value at the given index without boxing
+     * @param index the index at which the value needs to be removed
+     * @return the value at the given index
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    public int removeAt(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        modCount++;
+        return tree.removeInt(index);
+    }
+
+    /**
+     * Gives the first occurrence of the value
+     * @param value the value to search for
+     * @return the first index found to have the value or -1
+     */
+    public int indexOf(int value) {
+        return tree.indexOf(value);
+    }
+
+    /**
+     * Returns true if the value is within the list
+     * @param value the value to check for
+     * @return true if it is found
+     */
+    public boolean contains(int value) {
+        return tree.indexOf(value) != -1;
+    }
+
+    /**
+     * Returns the values of the list as an int array
+     * @return array of values
+     */
+    public int[] toIntArray() {
+        return tree.toArray();
+    }
+
+    /**
+     * Returns an iterator over the values which does not box them
+     * The iterator does not support remove, which removeIf, removeAll and retainAll do without it
+     * @return PrimitiveIterator.OfInt
+     */
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return tree.iterator();
+    }
+
+    /**
+     * Returns a sequential IntStream over the values
+     * @return IntStream
+     */
+    public IntStream intStream() {
+        return StreamSupport.intStream(
+                Spliterators.spliterator(tree.iterator(), size(), Spliterator.ORDERED), false);
+    }
+
+    @Override
+    Integer element(int index) {
+        return tree.getInt(index);
+    }
+
+    @Override
+    Integer replace(int index, Integer element) {
+        return tree.setInt(index, element);
+    }
+
+    @Override
+    void insert(int index, Integer element) {
+        tree.addInt(index, element);
+    }
+
+    @Override
+    Integer delete(int index) {
+        return tree.removeInt(index);
+    }
+
+    @Override
+    int search(Integer element) {
+        return tree.indexOf(element);
+    }
+
+    /**
+     * Clears the list
+     */
+    @Override
+    public void clear() {
+        tree.clear();
+        modCount++;
+    }
+
+    /**
+     * Removes every element the filter matches
+     * The values which are kept are copied into an array and the tree is built again from it in O(N)
+     * @param filter the filter picking the elements to remove
+     * @return true if any element was removed
+     * @throws NullPointerException if filter is null
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Integer> filter) throws NullPointerException {
+        if (filter == null){
+            throw new NullPointerException("Given filter is null");
+        }
+        final int[] values = tree.toArray();
+        int kept = 0;
+        for (int value : values) {
+            if (!filter.test(value)) {
+                values[kept++] = value;
+            }
+        }
+        if (kept == values.length) {
+            return false;
+        }
+        tree.load(Arrays.copyOf(values, kept));
+        modCount++;
+        return true;
+    }
+}
@@ -0,0 +1,210 @@
+package com.list;
+
+import com.list.structure.LongChunkedTree;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * List of long values with the same O(logN) positional operations as TreeList
+ * The values are kept unboxed in the leaves of a counted B+ tree, so the primitive methods
+ * such as getLong, addLong and removeAt neither allocate nor chase a reference per element
+ * The methods of List work as well, boxing at the boundary
+ */
+public class LongTreeList extends PrimitiveTreeList<Long> {
+    private final LongChunkedTree tree = new LongChunkedTree();
+
+    /**
+     * Constructor to initialize the list
+     */
+    public LongTreeList(){
+        super(Long.class);
+    }
+
+    /**
+     * Constructor to initialize the list with the given values
+     * Takes O(N) as the tree is built bottom up
+     * @param values the values to place in the list
+     */
+    public LongTreeList(long... values){
+        super(Long.class);
+        tree.load(values);
+    }
+
+    /**
+     * Returns the number of elements in the list
+     * @return the number of items
+     */
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    /**
+     * Gets the value at the specified index without boxing
+     * Takes O(logN)
+     * @param index whose value is needed
+     * @return Value at the given index
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    public long getLong(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        return tree.getLong(index);
+    }
+
+    /**
+     * Sets the given value at the given index without boxing
+     * @param index the location where to set the value
+     * @param value the value to set it with
+     * @return The value that the new one replaced
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    public long setLong(int index, long value) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        return tree.setLong(index, value);
+    }
+
+    /**
+     * Adds a value to the end of the list without boxing
+     * @param value the value to be added
+     */
+    public void addLong(long value) {
+        tree.addLong(size(), value);
+        modCount++;
+    }
+
+    /**
+     * Adds a value at the given index without boxing and moves the remaining values to the next cell
+     * @param index the index at which the value has to be added
+     * @param value the value to be added
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    public void addLong(int index, long value) throws IndexOutOfBoundsException {
+        checkIndex(index, size() + 1);
+        tree.addLong(index, value);
+        modCount++;
+    }
+
+    /**
+     * Removes the value at the given index without boxing
+     * @param index the index at which the value needs to be removed
+     * @return the value at the given index
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    public long removeAt(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        modCount++;
+        return tree.removeLong(index);
+    }
+
+    /**
+     * Gives the first occurrence of the value
+     * @param value the value to search for
+     * @return the first index found to have the value or -1
+     */
+    public int indexOf(long value) {
+        return tree.indexOf(value);
+    }
+
+    /**
+     * Returns true if the value is within the list
+     * @param value the value to check for
+     * @return true if it is found
+     */
+    public boolean contains(long value) {
+        return tree.indexOf(value) != -1;
+    }
+
+    /**
+     * Returns the values of the list as a long array
+     * @return array of values
+     */
+    public long[] toLongArray() {
+        return tree.toArray();
+    }
+
+    /**
+     * Returns an iterator over the values which does not box them
+     * The iterator does not support remove, which removeIf, removeAll and retainAll do without it
+     * @return PrimitiveIterator.OfLong
+     */
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return tree.iterator();
+    }
+
+    /**
+     * Returns a sequential LongStream over the values
+     * @return LongStream
+     */
+    public LongStream longStream() {
+        return StreamSupport.longStream(
+                Spliterators.spliterator(tree.iterator(), size(), Spliterator.ORDERED), false);
+    }
+
+    @Override
+    Long element(int index) {
+        return tree.getLong(index);
+    }
+
+    @Override
+    Long replace(int index, Long element) {
+        return tree.setLong(index, element);
+    }
+
+    @Override
+    void insert(int index, Long element) {
+        tree.addLong(index, element);
+    }
+
+    @Override
+    Long delete(int index) {
+        return tree.removeLong(index);
+    }
+
+    @Override
+    int search(Long element) {
+        return tree.indexOf(element);
+    }
+
+    /**
+     * Clears the list
+     */
+    @Override
+    public void clear() {
+        tree.clear();
+        modCount++;
+    }
+
+    /**
+     * Removes every element the filter matches
+     * The values which are kept are copied into an array and the tree is built again from it in O(N)
+     * @param filter the filter picking the elements to remove
+     * @return true if any element was removed
+     * @throws NullPointerException if filter is null
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Long> filter) throws NullPointerException {
+        if (filter == null){
+            throw new NullPointerException("Given filter is null");
+        }
+        final long[] values = tree.toArray();
+        int kept = 0;
+        for (long value : values) {
+            if (!filter.test(value)) {
+                values[kept++] = value;
+            }
+        }
+        if (kept == values.length) {
+            return false;
+        }
+        tree.load(Arrays.copyOf(values, kept));
+        modCount++;
+        return true;
+    }
+}
@@ -0,0 +1,178 @@
+package com.list;
+
+import java.util.AbstractList;
+import java.util.Collection;
+
+/**
+ * Base of the lists which keep primitive values in a chunked tree
+ * It implements the methods of List on boxed values, checking them and their indexes before
+ * handing them to the subclass, which reads and writes its tree through the unchecked hooks
+ * The iterators of the subclasses do not support remove, so the bulk removals go through removeIf,
+ * which filters the values into an array and builds the tree again in O(N)
+ */
+abstract class PrimitiveTreeList<E> extends AbstractList<E> {
+    private final Class<E> type; //the boxed type of the values
+
+    /**
+     * Constructor
+     * @param type the boxed type of the values
+     */
+    PrimitiveTreeList(Class<E> type) {
+        this.type = type;
+    }
+
+    /**
+     * Returns the value at the index, boxed
+     * @param index the index, within bounds
+     * @return the value
+     */
+    abstract E element(int index);
+
+    /**
+     * Replaces the value at the index
+     * @param index the index, within bounds
+     * @param element the value to store, not null
+     * @return the value that was replaced, boxed
+     */
+    abstract E replace(int index, E element);
+
+    /**
+     * Inserts the value at the index
+     * @param index the index, within bounds
+     * @param element the value to store, not null
+     */
+    abstract void insert(int index, E element);
+
+    /**
+     * Removes the value at the index
+     * @param index the index, within bounds
+     * @return the value that was removed, boxed
+     */
+    abstract E delete(int index);
+
+    /**
+     * Finds the first occurrence of the value
+     * @param element the value, not null
+     * @return the index of the value or -1
+     */
+    abstract int search(E element);
+
+    /**
+     * Gets the value at the specified index
+     * @param index whose value is needed
+     * @return Value at the given index
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    @Override
+    public E get(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        return element(index);
+    }
+
+    /**
+     * Sets the given element at the given index
+     * @param index the location where to set the element
+     * @param element the element to set it with
+     * @return The value that the element replaced
+     * @throws NullPointerException if element is null
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    @Override
+    public E set(int index, E element) throws NullPointerException,IndexOutOfBoundsException {
+        if (element == null){
+            throw new NullPointerException("Given element is null");
+        }
+        checkIndex(index, size());
+        return replace(index, element);
+    }
+
+    /**
+     * Adds a element at the given index and moves the remaining elements to the next cell
+     * @param index the index at with element has to be added
+     * @param element the element to be added at
+     * @throws NullPointerException if element is null
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    @Override
+    public void add(int index, E element) throws NullPointerException,IndexOutOfBoundsException {
+        if (element == null){
+            throw new NullPointerException("Given element is null");
+        }
+        checkIndex(index, size() + 1);
+        insert(index, element);
+        modCount++;
+    }
+
+    /**
+     * Removes the element from the list
+     * @param index the index at which element needs to be removed
+     * @return the value at the given index
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    @Override
+    public E remove(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        modCount++;
+        return delete(index);
+    }
+
+    /**
+     * Gives the first occurrence of o
+     * @param o the object to search for
+     * @return the first index found to have the value o or -1
+     */
+    @Override
+    public int indexOf(Object o) {
+        return type.isInstance(o) ? search(type.cast(o)) : -1;
+    }
+
+    /**
+     * Returns true if the object is within the list
+     * @param o the object to check for
+     * @return true if it is found
+     */
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+    /**
+     * Removes every element which is in the collection
+     * @param c the collection of elements to remove
+     * @return true if any element was removed
+     * @throws NullPointerException if c is null
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) throws NullPointerException {
+        if (c == null){
+            throw new NullPointerException("Given collection is null");
+        }
+        return removeIf(c::contains);
+    }
+
+    /**
+     * Removes every element which is not in the collection
+     * @param c the collection of elements to keep
+     * @return true if any element was removed
+     * @throws NullPointerException if c is null
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) throws NullPointerException {
+        if (c == null){
+            throw new NullPointerException("Given collection is null");
+        }
+        return removeIf(value -> !c.contains(value));
+    }
+
+    /**
+     * Checks that the index lies within the given bound
+     * @param index the index to check
+     * @param bound the first index which is out of bounds
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    static void checkIndex(int index, int bound) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("index is out of bounds");
+        }
+    }
+}
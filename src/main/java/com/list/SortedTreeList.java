@@ -0,0 +1,491 @@
+package com.list;
+
+import com.list.structure.RedBlackTree;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * List which keeps its elements sorted, on top of a red black tree
+ * Elements are ordered by their natural order unless a Comparator is given, and equal elements
+ * keep the order they were added in. add places an element by going down the tree once, and the sizes
+ * of the subtrees give the rank of any element on the same walk, so searching, ranking and counting
+ * the elements in a range all take O(logN)
+ * Placing an element at a chosen index would break the order, so add(int, E) and set are not supported
+ * The comparator should be consistent with equals
+ */
+public class SortedTreeList<E extends Comparable<E>> extends AbstractList<E> {
+    private final RedBlackTree<E> tree = new RedBlackTree<>();
+    private final Comparator<? super E> comparator;
+
+    /**
+     * Constructor to initialize a list sorted by the natural order of its elements
+     */
+    public SortedTreeList() {
+        this(Comparator.naturalOrder());
+    }
+
+    /**
+     * Constructor to initialize a list sorted by the given comparator
+     * @param comparator the order of the elements
+     * @throws NullPointerException if comparator is null
+     */
+    public SortedTreeList(Comparator<? super E> comparator) throws NullPointerException {
+        if (comparator == null){
+            throw new NullPointerException("Given comparator is null");
+        }
+        this.comparator = comparator;
+    }
+
+    /**
+     * Constructor to initialize a list with the elements of the collection, sorted by their natural order
+     * Takes O(NlogN) to sort the elements, and the tree is then built bottom up in O(N)
+     * @param c the collection whose elements are placed in the list
+     * @throws NullPointerException if an element is null
+     */
+    public SortedTreeList(Collection<? extends E> c) throws NullPointerException {
+        this(c, Comparator.naturalOrder());
+    }
+
+    /**
+     * Constructor to initialize a list with the elements of the collection, sorted by the given comparator
+     * Takes O(NlogN) to sort the elements, and the tree is then built bottom up in O(N)
+     * @param c the collection whose elements are placed in the list
+     * @param comparator the order of the elements
+     * @throws NullPointerException if comparator or an element is null
+     */
+    public SortedTreeList(Collection<? extends E> c, Comparator<? super E> comparator) throws NullPointerException {
+        this(comparator);
+        addAll(c);
+    }
+
+    /**
+     * Returns the comparator which orders the list
+     * @return the comparator
+     */
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Returns the number of elements in the list
+     * @return the number of items
+     */
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    /**
+     * Returns true if the list is empty
+     * @return true if the list is empty
+     */
+    @Override
+    public boolean isEmpty() {
+        return tree.isEmpty();
+    }
+
+    /**
+     * Gets the value at the specified index
+     * Takes O(logN)
+     * @param index whose value is needed
+     * @return Value at the given index
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    @Override
+    public E get(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        return tree.getValue(index);
+    }
+
+    /**
+     * Adds the element after the elements which are less than or equal to it
+     * Takes O(logN)
+     * @param o the element to be added
+     * @return true as the list always changes
+     * @throws NullPointerException if element is null
+     */
+    @Override
+    public boolean add(E o) throws NullPointerException {
+        checkElement(o);
+        tree.insert(tree.getRank(o, comparator, true), o);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Adds all the elements of the collection at their places in the order
+     * An empty list is built bottom up from the sorted elements in O(N) after sorting them,
+     * otherwise the elements are added one at a time in O(KlogN)
+     * @param c the collection of elements to be added
+     * @return true if the list changed
+     * @throws NullPointerException if an element is null
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) throws NullPointerException {
+        final List<E> values = new ArrayList<>(c);
+        for (E value : values) {
+            checkElement(value);
+        }
+        if (values.isEmpty()) {
+            return false;
+        }
+        if (!isEmpty()) {
+            for (E value : values) {
+                add(value);
+            }
+            return true;
+        }
+        values.sort(comparator);
+        tree.load(values);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Not supported, as the index of an element is given by the order
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void add(int index, E element) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("add at an index is not supported by SortedTreeList");
+    }
+
+    /**
+     * Not supported, as the index of an element is given by the order
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public E set(int index, E element) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("set is not supported by SortedTreeList");
+    }
+
+    /**
+     * Removes the element at the given index
+     * Takes O(logN)
+     * @param index the index at which element needs to be removed
+     * @return the value at the given index
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    @Override
+    public E remove(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, size());
+        final E value = tree.remove(index);
+        modCount++;
+        return value;
+    }
+
+    /**
+     * Removes the first occurrence of the object
+     * Takes O(logN) to find it among the elements comparing equal to it
+     * @param o the object to be removed
+     * @return true if removed
+     * @throws NullPointerException if o is null
+     * @throws ClassCastException if o can not be compared with the elements
+     */
+    @Override
+    public boolean remove(Object o) throws NullPointerException, ClassCastException {
+        final int index = indexOf(o);
+        if (index == -1) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Removes the elements from fromIndex, inclusive, to toIndex, exclusive
+     * Takes O(logN) as the tree cuts the range out and joins the two ends back
+     * @param fromIndex the index of the first element to remove
+     * @param toIndex the index after the last element to remove
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        tree.deleteRange(fromIndex, toIndex);
+        modCount++;
+    }
+
+    /**
+     * Removes every element the filter matches
+     * The survivors are still in order, so they are rebuilt into a balanced tree in O(N)
+     * @param filter the filter picking the elements to remove
+     * @return true if any element was removed
+     * @throws NullPointerException if filter is null
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) throws NullPointerException {
+        if (filter == null){
+            throw new NullPointerException("Given filter is null");
+        }
+        if (!tree.removeIf(filter)) {
+            return false;
+        }
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Clears the list
+     */
+    @Override
+    public void clear() {
+        tree.clear();
+        modCount++;
+    }
+
+    /**
+     * Gives the first occurrence of o
+     * Takes O(logN) as the first element comparing equal to o is found by going down the tree,
+     * then the elements comparing equal to it are checked with equals
+     * @param o the object to search for
+     * @return the first index found to have the value o
+     * @throws NullPointerException if o is null
+     * @throws ClassCastException if o can not be compared with the elements
+     */
+    @Override
+    public int indexOf(Object o) throws NullPointerException, ClassCastException {
+        final E value = cast(o);
+        final int end = tree.getRank(value, comparator, true);
+        for (int index = tree.getRank(value, comparator, false); index < end; index++) {
+            if (value.equals(tree.getValue(index))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the last occurrence of o
+     * Takes O(logN) like indexOf, checking the elements comparing equal to o from the last one
+     * @param o the object
+     * @return the last index where o was found
+     * @throws NullPointerException if o is null
+     * @throws ClassCastException if o can not be compared with the elements
+     */
+    @Override
+    public int lastIndexOf(Object o) throws NullPointerException, ClassCastException {
+        final E value = cast(o);
+        final int start = tree.getRank(value, comparator, false);
+        for (int index = tree.getRank(value, comparator, true) - 1; index >= start; index--) {
+            if (value.equals(tree.getValue(index))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if the object is within the list
+     * Takes O(logN)
+     * @param o the object to check for
+     * @return true if it is found
+     * @throws NullPointerException if o is null
+     * @throws ClassCastException if o can not be compared with the elements
+     */
+    @Override
+    public boolean contains(Object o) throws NullPointerException, ClassCastException {
+        return indexOf(o) != -1;
+    }
+
+    /**
+     * Returns the number of elements less than the given element, which is the index it would be added at
+     * if it was added before the elements equal to it
+     * Takes O(logN)
+     * @param e the element to rank
+     * @return the rank of the element
+     * @throws NullPointerException if e is null
+     */
+    public int rank(E e) throws NullPointerException {
+        checkElement(e);
+        return tree.getRank(e, comparator, false);
+    }
+
+    /**
+     * Returns the greatest element less than or equal to the given element
+     * Takes O(logN)
+     * @param e the element to search for
+     * @return the greatest element less than or equal to e, or null if there is none
+     * @throws NullPointerException if e is null
+     */
+    public E floor(E e) throws NullPointerException {
+        checkElement(e);
+        final int index = tree.getRank(e, comparator, true) - 1;
+        return index >= 0 ? tree.getValue(index) : null;
+    }
+
+    /**
+     * Returns the least element greater than or equal to the given element
+     * Takes O(logN)
+     * @param e the element to search for
+     * @return the least element greater than or equal to e, or null if there is none
+     * @throws NullPointerException if e is null
+     */
+    public E ceiling(E e) throws NullPointerException {
+        checkElement(e);
+        final int index = tree.getRank(e, comparator, false);
+        return index < size() ? tree.getValue(index) : null;
+    }
+
+    /**
+     * Returns the number of elements from lo to hi, both inclusive
+     * Takes O(logN)
+     * @param lo the lowest element to count
+     * @param hi the highest element to count
+     * @return the number of elements in the range, or 0 if hi is less than lo
+     * @throws NullPointerException if lo or hi is null
+     */
+    public int countInRange(E lo, E hi) throws NullPointerException {
+        checkElement(lo);
+        checkElement(hi);
+        return Math.max(0, tree.getRank(hi, comparator, true) - tree.getRank(lo, comparator, false));
+    }
+
+    /**
+     * Performs the action on every element in order
+     * Takes O(N) without allocating
+     * @param action the action
+     * @throws NullPointerException if action is null
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) throws NullPointerException {
+        if (action == null){
+            throw new NullPointerException("Given action is null");
+        }
+        tree.forEach(action);
+    }
+
+    /**
+     * Returns the elements of the list as an array
+     * @return array of elements
+     */
+    @Override
+    public Object[] toArray() {
+        final Object[] elements = new Object[size()];
+        tree.copyTo(elements);
+        return elements;
+    }
+
+    /**
+     * Returns an iterator which walks the tree in order and can remove elements
+     * @return Iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return listIterator(0);
+    }
+
+    /**
+     * Returns a list iterator which walks the tree in order, stepping in amortized O(1)
+     * It can remove elements but not set or add them, and fails fast
+     * @param index the index of the first element to be returned by next
+     * @return ListIterator
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
+    @Override
+    public ListIterator<E> listIterator(int index) throws IndexOutOfBoundsException {
+        checkIndex(index, size() + 1);
+        return new SortedIterator(tree.listIterator(index));
+    }
+
+    /**
+     * Returns a spliterator which splits at the middle index and knows the exact size of both halves
+     * @return Spliterator
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return tree.spliterator();
+    }
+
+    /**
+     * Checks that the element is not null
+     * @param element the element to check
+     * @throws NullPointerException if element is null
+     */
+    private static void checkElement(Object element) throws NullPointerException {
+        if (element == null){
+            throw new NullPointerException("Given element is null");
+        }
+    }
+
+    /**
+     * Checks the object is not null and takes it as an element, which the comparator checks the type of
+     * @param o the object
+     * @return the object as an element
+     * @throws NullPointerException if o is null
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> E cast(Object o) throws NullPointerException {
+        checkElement(o);
+        return (E) o;
+    }
+
+    /**
+     * Checks that the index lies within the given bound
+     * @param index the index to check
+     * @param bound the first index which is out of bounds
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    private static void checkIndex(int index, int bound) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("index is out of bounds");
+        }
+    }
+
+    /**
+     * List iterator of the tree which keeps the order by refusing set and add
+     */
+    private final class SortedIterator implements ListIterator<E> {
+        private final ListIterator<E> iterator;
+
+        SortedIterator(ListIterator<E> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public E next() {
+            return iterator.next();
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return iterator.hasPrevious();
+        }
+
+        @Override
+        public E previous() {
+            return iterator.previous();
+        }
+
+        @Override
+        public int nextIndex() {
+            return iterator.nextIndex();
+        }
+
+        @Override
+        public int previousIndex() {
+            return iterator.previousIndex();
+        }
+
+        @Override
+        public void remove() {
+            iterator.remove();
+            modCount++;
+        }
+
+        @Override
+        public void set(E e) {
+            throw new UnsupportedOperationException("set is not supported by SortedTreeList");
+        }
+
+        @Override
+        public void add(E e) {
+            throw new UnsupportedOperationException("add at an index is not supported by SortedTreeList");
+        }
+    }
+}
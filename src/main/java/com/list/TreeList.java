@@ -1,26 +1,133 @@
 package com.list;
 
+import com.list.stats.Operation;
+import com.list.stats.TreeListMetrics;
+import com.list.stats.TreeListStats;
 import com.list.structure.Node;
-import com.list.structure.RBIterator;
 import com.list.structure.RedBlackTree;
+import com.list.structure.interfaces.PositionalTree;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.reflect.Array;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Class implementing list with the underlying structure being a self balancing tree
+ * The tree is a red black tree unless another engine, such as a ChunkedTree, is given
  * Created by Dhanish on 10 Feb,17.
  */
 public class TreeList<E extends Comparable<E>> implements List<E> {
-    private int size = 0;
-    private int lastIndex = 0;
-    private final RedBlackTree<E> tree;
-
+    private final PositionalTree<E> tree;
+    private final TreeListMetrics metrics = TreeListMetrics.ENABLED ? new TreeListMetrics() : null;
 
     /**
      * Constructor to initialize the list
      */
-    TreeList(){
+    public TreeList(){
         tree = new RedBlackTree<>();
+        if (TreeListMetrics.ENABLED) {
+            tree.setMetrics(metrics);
+        }
+    }
+
+    /**
+     * Constructor to initialize the list with the elements of the collection
+     * in the order returned by its iterator
+     * Takes O(N) as the tree is built bottom up
+     * @param c the collection whose elements are placed in the list
+     * @throws NullPointerException if an element is null
+     */
+    public TreeList(Collection<? extends E> c) throws NullPointerException {
+        this();
+        addAll(c);
+    }
+
+    /**
+     * Constructor to initialize the list with the elements of the array
+     * Takes O(N) as the tree is built bottom up
+     * @param elements the elements to place in the list
+     * @throws NullPointerException if an element is null
+     */
+    public TreeList(E[] elements) throws NullPointerException {
+        this(Arrays.asList(elements));
+    }
+
+    /**
+     * Constructor to initialize the list on top of the given storage engine
+     * The list holds whatever the engine holds, and the engine should not be used on its own afterwards
+     * Handles need the red black tree engine, and splitAt, concat and value indexing
+     * are only available where the engine supports them
+     * @param tree the tree holding the elements of the list
+     * @throws NullPointerException if tree is null
+     */
+    public TreeList(PositionalTree<E> tree) throws NullPointerException {
+        if (tree == null){
+            throw new NullPointerException("Given tree is null");
+        }
+        this.tree = tree;
+        if (TreeListMetrics.ENABLED) {
+            tree.setMetrics(metrics);
+        }
+    }
+
+    /**
+     * Returns the time an operation starts at if metrics are enabled
+     * @return the System.nanoTime or 0 if metrics are disabled
+     */
+    private static long startTimer() {
+        return TreeListMetrics.ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the latency of an operation if metrics are enabled
+     * @param operation the operation
+     * @param start the time returned by startTimer
+     */
+    private void record(Operation operation, long start) {
+        if (TreeListMetrics.ENABLED) {
+            metrics.record(operation, start);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the metrics of the list: operation counts and latency percentiles,
+     * rotations per write, the depth of searches by index, in order scans for a value,
+     * and the height of the tree if the engine measures it, which takes O(N) for the red black tree
+     * Metrics are only recorded when the JVM runs with -Dcom.list.metrics=true
+     * @return the snapshot
+     * @throws IllegalStateException if metrics are not enabled
+     */
+    public TreeListStats stats() throws IllegalStateException {
+        checkMetricsEnabled();
+        return metrics.snapshot(size(), tree.getHeight());
+    }
+
+    /**
+     * Registers the metrics of the list as an MXBean under com.list:type=TreeList,name=the given name
+     * The bean reads the counters without locking and leaves out the height, which would have to walk the tree
+     * The MBean server holds on to the list until TreeListMetrics.unregister is called with the returned name
+     * @param name the name of the list
+     * @return the name the bean was registered under
+     * @throws IllegalStateException if metrics are not enabled
+     * @throws JMException if the bean can not be registered
+     */
+    public ObjectName registerStats(String name) throws IllegalStateException, JMException {
+        checkMetricsEnabled();
+        return TreeListMetrics.register(name, () -> metrics.snapshot(size(), -1));
+    }
+
+    /**
+     * Checks that metrics are enabled
+     * @throws IllegalStateException if they are not
+     */
+    private static void checkMetricsEnabled() throws IllegalStateException {
+        if (!TreeListMetrics.ENABLED) {
+            throw new IllegalStateException("metrics are not enabled, run with -Dcom.list.metrics=true");
+        }
     }
 
     /**
@@ -28,7 +135,7 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
      * @return the number of items
      */
     public int size() {
-        return size;
+        return tree.size();
     }
 
     /**
@@ -41,6 +148,7 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
 
     /**
      * Returns true if the object is within the list
+     * Takes O(1) when values are indexed, otherwise O(N)
      * @param o the object to check for
      * @return true if it is found
      * @throws NullPointerException if element is null
@@ -50,12 +158,33 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
         if (o == null){
             throw new NullPointerException("object is null");
         }
-        for (E e : this) {
-            if (o.equals(e)) {
-                return true;
-            }
-        }
-        return false;
+        final long start = startTimer();
+        final boolean contains = tree.contains(o);
+        record(Operation.SEARCH, start);
+        return contains;
+    }
+
+    /**
+     * Turns the index from elements to their positions on or off
+     * With the index contains takes O(1), and indexOf, lastIndexOf and remove(Object)
+     * take O(logN) per copy of the element instead of scanning the list.
+     * It costs a hash map entry per element and makes splitAt, concat and clearing
+     * a sub list O(K) in the number of elements moved or removed
+     * Elements must not change their hash code while they are in the list
+     * Takes O(N) to build the index
+     * @param indexed true to index the elements
+     * @throws UnsupportedOperationException if the engine of the list cannot index elements
+     */
+    public void setValueIndexed(boolean indexed) throws UnsupportedOperationException {
+        tree.setValueIndexed(indexed);
+    }
+
+    /**
+     * Returns if the elements are indexed
+     * @return true if the elements are indexed
+     */
+    public boolean isValueIndexed() {
+        return tree.isValueIndexed();
     }
 
     /**
@@ -64,25 +193,36 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
      */
     @Override
     public Iterator<E> iterator() {
-        return  new RBIterator<>(tree);
+        return tree.iterator();
+    }
+
+    /**
+     * Returns a spliterator for the list which is SIZED, SUBSIZED and ORDERED
+     * It splits at the middle index without walking the tree, and each part finds its first element
+     * in O(logN) and then steps through the tree in order, so parallel streams split evenly
+     * @return Spliterator
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return tree.spliterator();
     }
 
     /**
      * Returns the elements of the list as an array
+     * Takes O(N) as the tree copies its elements straight into the array
      * @return array of elements
      */
     @Override
     public Object[] toArray() {
-        Iterator<E> iterator = iterator();
         Object[] toReturn = new Object[size()];
-        for (int i=0;i<size();i++){
-            toReturn[i] = iterator.next();
-        }
+        tree.copyTo(toReturn);
         return toReturn;
     }
 
     /**
      * Returns an array of the list with the runtime type type of T
+     * The elements are copied straight into the given array, or into a new one of its runtime type
+     * if it is too small, without going through an intermediate array
      * @param a  the array
      * @param <T> the runtime type
      * @return runtime typed array of the list
@@ -90,17 +230,70 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
     @Override
     @SuppressWarnings("unchecked")
     public <T> T[] toArray(T[] a) {
+        final int size = size();
         if (a.length < size) {
-            // Make a new array of a's runtime type, but my contents:
-            return (T[]) Arrays.copyOf(toArray(), size, a.getClass());
+            a = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
         }
-        System.arraycopy(toArray(), 0, a, 0, size);
+        tree.copyTo(a);
         if (a.length > size) {
             a[size] = null;
         }
         return a;
     }
 
+    /**
+     * Performs the action on every element in order
+     * Takes O(N), and the red black tree walks its nodes without allocating
+     * @param action the action
+     * @throws NullPointerException if action is null
+     * @throws ConcurrentModificationException if the action changes the list structurally
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) throws NullPointerException, ConcurrentModificationException {
+        if (action == null){
+            throw new NullPointerException("Given action is null");
+        }
+        tree.forEach(action);
+    }
+
+    /**
+     * Removes every element the filter matches
+     * Each element is tested once, and the survivors are rebuilt into a balanced tree in O(N)
+     * instead of deleting the matches one by one. Handles to the survivors stay valid
+     * @param filter the filter picking the elements to remove
+     * @return true if any element was removed
+     * @throws NullPointerException if filter is null
+     * @throws ConcurrentModificationException if the filter changes the list structurally
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) throws NullPointerException, ConcurrentModificationException {
+        if (filter == null){
+            throw new NullPointerException("Given filter is null");
+        }
+        return tree.removeIf(filter);
+    }
+
+    /**
+     * Replaces every element with the result of the operator
+     * Takes O(N), and the red black tree walks its nodes without allocating
+     * @param operator the operator to apply to each element
+     * @throws NullPointerException if operator is null or returns null
+     * @throws ConcurrentModificationException if the operator changes the list structurally
+     */
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) throws NullPointerException, ConcurrentModificationException {
+        if (operator == null){
+            throw new NullPointerException("Given operator is null");
+        }
+        tree.replaceAll(value -> {
+            final E replacement = operator.apply(value);
+            if (replacement == null){
+                throw new NullPointerException("Given element is null");
+            }
+            return replacement;
+        });
+    }
+
 
     /**
      * Adds an element to the list
@@ -113,15 +306,15 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
         if (o == null){
             throw new NullPointerException("Given element is null");
         }
-        tree.insert(o);
-        lastIndex++;
-        size++;
+        final long start = startTimer();
+        tree.add(o);
+        record(Operation.ADD, start);
         return true;
     }
 
     /**
      * Removes an element from the list
-     * We have to first find the element which could take O(N)
+     * We have to first find the element which could take O(N), or O(logN) when values are indexed
      * Takes O(logN) time to remove
      * @param o The object to be removed
      * @return true if removed
@@ -133,14 +326,17 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
         if (o == null){
             throw new NullPointerException("Given element is null");
         }
-        final int index = tree.getIndex((E)o);
+        final long start = startTimer();
+        final int index = tree.getIndex(o);
         if (index == -1){
             // element not found
             // no change in list, thus return false
+            record(Operation.SEARCH, start);
             return false;
             }
-        Node<E> deleted = tree.delete(index);
-        return !tree.isNil(deleted);
+        tree.remove(index);
+        record(Operation.REMOVE, start);
+        return true;
     }
 
     @Override
@@ -148,14 +344,40 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
         return false;
     }
 
+    /**
+     * Adds all the elements of the collection to the end of the list
+     * Takes O(K + logN) for K elements, or O(K) when the list is empty
+     * @param c the collection of elements to add
+     * @return true if the list changed
+     * @throws NullPointerException if an element is null
+     */
     @Override
-    public boolean addAll(Collection<? extends E> c) {
-        return false;
+    public boolean addAll(Collection<? extends E> c) throws NullPointerException {
+        return addAll(size(), c);
     }
 
+    /**
+     * Adds all the elements of the collection at the given index and moves the
+     * remaining elements after them
+     * The elements are built into a balanced tree of their own which is then joined into the list,
+     * taking O(K + logN) for K elements
+     * @param index the index at which to add the first element
+     * @param c the collection of elements to add
+     * @return true if the list changed
+     * @throws NullPointerException if an element is null
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     */
     @Override
-    public boolean addAll(int index, Collection<? extends E> c) {
-        return false;
+    public boolean addAll(int index, Collection<? extends E> c) throws NullPointerException,IndexOutOfBoundsException {
+        if (index < 0 || index > size()){
+            throw new IndexOutOfBoundsException("index is out of bounds");
+        }
+        final List<E> values = new ArrayList<>(c);
+        if (values.contains(null)){
+            throw new NullPointerException("Given element is null");
+        }
+        tree.insertAll(index, values);
+        return !values.isEmpty();
     }
 
     @Override
@@ -174,8 +396,6 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
     @Override
     public void clear() {
         tree.clear();
-        size = 0;
-        lastIndex = 0;
     }
 
     /**
@@ -190,7 +410,10 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
         if (index < 0 || index >= size()){
             throw new IndexOutOfBoundsException("index is out of bounds");
         }
-        return tree.get(index).getValue();
+        final long start = startTimer();
+        final E value = tree.getValue(index);
+        record(Operation.GET, start);
+        return value;
     }
 
     /**
@@ -209,7 +432,10 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
         if (index < 0 || index >= size()){
             throw new IndexOutOfBoundsException("index is out of bounds");
         }
-        return tree.set(index,element);
+        final long start = startTimer();
+        final E value = tree.set(index,element);
+        record(Operation.SET, start);
+        return value;
     }
 
     /**
@@ -229,14 +455,9 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
         if (index < 0 || index >= size() + 1){
             throw new IndexOutOfBoundsException("index is out of bounds");
         }
-        if (index == lastIndex){
-            add(element);
-        } else {
-            tree.insert(index, element);
-            lastIndex++;
-            size++;
-        }
-
+        final long start = startTimer();
+        tree.add(index, element);
+        record(Operation.ADD, start);
     }
 
     /**
@@ -251,14 +472,15 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
         if (index < 0 || index >= size()){
             throw new IndexOutOfBoundsException("index is out of bounds");
         }
-        E value = tree.delete(index).getValue();
-        size--;
-        lastIndex--;
+        final long start = startTimer();
+        final E value = tree.remove(index);
+        record(Operation.REMOVE, start);
         return value;
     }
 
     /**
      * Gives the first occurrence of o
+     * Takes O(logN) per copy of o when values are indexed, otherwise O(N)
      * @param o the object to search for
      * @return the first index found to have the value o
      * @throws NullPointerException if o is null
@@ -268,12 +490,15 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
         if (o == null){
             throw new NullPointerException("Given element is null");
         }
-        return tree.getIndex((E) o);
-
+        final long start = startTimer();
+        final int index = tree.getIndex(o);
+        record(Operation.SEARCH, start);
+        return index;
     }
 
     /**
      * Returns the last occurrence of o
+     * Takes O(logN) per copy of o when values are indexed, otherwise O(N)
      * @param o the object
      * @return the last index where o was found
      * @throws NullPointerException if o is null
@@ -283,70 +508,346 @@ public class TreeList<E extends Comparable<E>> implements List<E> {
         if (o == null){
             throw new NullPointerException("Given element is null");
         }
-        Iterator<E> iterator = iterator();
-        int index = -1;
-        int i=0;
-        while (iterator.hasNext()){
-            if (iterator.next().equals(o)){
-                index = i;
-            }
-            i++;
-        }
+        final long start = startTimer();
+        final int index = tree.getLastIndex(o);
+        record(Operation.SEARCH, start);
         return index;
     }
 
     /**
      * Returns the iterator to the list
+     * The iterator walks the tree directly, writes through to the list and fails fast
+     * if the list is structurally changed other than through the iterator
      * @return ListIterator
      */
     @Override
     public ListIterator<E> listIterator() {
-        Iterator<E> iterator =  iterator();
-
-        List<E> asList = new ArrayList<>();
-        iterator.forEachRemaining(asList::add);
-
-        return asList.listIterator();
+        return tree.listIterator(0);
     }
 
     /**
      * Returns the iterator to the list from the given index
+     * Takes O(logN) to find the starting element
+     * @param index the index of the first element to be returned by next
      * @return ListIterator
      * @throws IndexOutOfBoundsException if index is out of bounds
      */
     @Override
     public ListIterator<E> listIterator(int index) throws IndexOutOfBoundsException {
-        if (index < 0 || index >= size()){
+        if (index < 0 || index > size()){
             throw new IndexOutOfBoundsException("index out of bounds");
         }
-        Iterator<E> iterator =  iterator();
-
-        List<E> asList = new ArrayList<>();
-
-        iterator.forEachRemaining(asList::add);
-
-        return asList.listIterator(index);
+        return tree.listIterator(index);
     }
 
     /**
-     * Returns a sub list from the fromIndex to toIndex
+     * Returns a view of the list from fromIndex, inclusive, to toIndex, exclusive
+     * The view reads and writes through to this list by shifting its indexes,
+     * so nothing is copied and each operation on it takes O(logN)
+     * Clearing the view deletes the whole range from this list in O(logN)
+     * The view fails fast if this list is structurally changed other than through the view
      * @param fromIndex the starting index
      * @param toIndex the ending index
-     * @return the list from the two given indexes
+     * @return the view of the list between the two given indexes
      * @throws IndexOutOfBoundsException when index is out of bounds
+     * @throws IllegalArgumentException when fromIndex is greater than toIndex
      */
     @Override
-    public List<E> subList(int fromIndex, int toIndex) throws IndexOutOfBoundsException {
-        if (fromIndex < 0 || toIndex >= size()) {
+    public List<E> subList(int fromIndex, int toIndex) throws IndexOutOfBoundsException,IllegalArgumentException {
+        if (fromIndex < 0 || toIndex > size()) {
             throw new IndexOutOfBoundsException("index out of bounds");
         }
-        List<E> toReturn = new TreeList<>();
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex is greater than toIndex");
+        }
+        return new SubList(fromIndex, toIndex - fromIndex);
+    }
 
-        for (int k = fromIndex; k<=toIndex; k++){
-            toReturn.add(get(k));
+    /**
+     * View of a range of the list which translates its indexes by an offset
+     */
+    private class SubList extends AbstractList<E> {
+        private final int offset;
+        private int size;
+        private int expectedModCount;
+
+        /**
+         * Constructor for the view
+         * @param offset the index in the list of the first element of the view
+         * @param size the number of elements in the view
+         */
+        SubList(int offset, int size) {
+            this.offset = offset;
+            this.size = size;
+            this.expectedModCount = tree.getModCount();
         }
-        return toReturn;
+
+        @Override
+        public int size() {
+            checkForComodification();
+            return size;
+        }
+
+        @Override
+        public E get(int index) {
+            checkForComodification();
+            checkIndex(index, size);
+            return TreeList.this.get(offset + index);
+        }
+
+        @Override
+        public E set(int index, E element) {
+            checkForComodification();
+            checkIndex(index, size);
+            return TreeList.this.set(offset + index, element);
+        }
+
+        @Override
+        public void add(int index, E element) {
+            checkForComodification();
+            checkIndex(index, size + 1);
+            TreeList.this.add(offset + index, element);
+            expectedModCount = tree.getModCount();
+            size++;
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends E> c) {
+            checkForComodification();
+            checkIndex(index, size + 1);
+            final int before = TreeList.this.size();
+            TreeList.this.addAll(offset + index, c);
+            expectedModCount = tree.getModCount();
+            size += TreeList.this.size() - before;
+            return TreeList.this.size() != before;
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> c) {
+            return addAll(size, c);
+        }
+
+        @Override
+        public E remove(int index) {
+            checkForComodification();
+            checkIndex(index, size);
+            final E value = TreeList.this.remove(offset + index);
+            expectedModCount = tree.getModCount();
+            size--;
+            return value;
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            checkForComodification();
+            tree.deleteRange(offset + fromIndex, offset + toIndex);
+            expectedModCount = tree.getModCount();
+            size -= toIndex - fromIndex;
+        }
+
+        /**
+         * Checks that the list has not been structurally changed other than through this view
+         * @throws ConcurrentModificationException if it has
+         */
+        private void checkForComodification() throws ConcurrentModificationException {
+            if (tree.getModCount() != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        /**
+         * Checks that the index lies within the given bound
+         * @param index the index to check
+         * @param bound the first index which is out of bounds
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         */
+        private void checkIndex(int index, int bound) throws IndexOutOfBoundsException {
+            if (index < 0 || index >= bound) {
+                throw new IndexOutOfBoundsException("index is out of bounds");
+            }
+        }
+    }
+
+    /**
+     * Removes the elements from fromIndex, inclusive, to toIndex, exclusive
+     * The red black tree cuts the range out by splitting itself around it and joins the two ends back,
+     * which takes O(logN) however many elements are removed, or O(K) when values are indexed.
+     * Other engines remove the elements one at a time
+     * @param fromIndex the index of the first element to remove
+     * @param toIndex the index after the last element to remove
+     * @throws IndexOutOfBoundsException if fromIndex or toIndex is out of bounds or fromIndex > toIndex
+     */
+    public void removeRange(int fromIndex, int toIndex) throws IndexOutOfBoundsException {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex){
+            throw new IndexOutOfBoundsException("index is out of bounds");
+        }
+        tree.deleteRange(fromIndex, toIndex);
     }
 
+    /**
+     * Splits the list at the given index, keeping the elements before the index in this list
+     * The elements from the index onwards are moved to the returned list without copying
+     * Takes O(logN)
+     * @param index the index of the first element to move
+     * @return a list holding the elements from the index onwards
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     * @throws UnsupportedOperationException if the engine of the list cannot split
+     */
+    public TreeList<E> splitAt(int index) throws IndexOutOfBoundsException,UnsupportedOperationException {
+        if (index < 0 || index > size()){
+            throw new IndexOutOfBoundsException("index is out of bounds");
+        }
+        return new TreeList<>(tree.split(index));
+    }
 
+    /**
+     * Moves all the elements of the other list to the end of this list without copying,
+     * leaving the other list empty
+     * Takes O(logN)
+     * @param other the list whose elements go after the elements of this list
+     * @throws NullPointerException if other is null
+     * @throws IllegalArgumentException if other is this list or uses a different engine
+     * @throws UnsupportedOperationException if the engine of the list cannot join
+     */
+    public void concat(TreeList<E> other) throws NullPointerException,IllegalArgumentException,UnsupportedOperationException {
+        if (other == null){
+            throw new NullPointerException("Given list is null");
+        }
+        if (other == this){
+            throw new IllegalArgumentException("cannot concat a list to itself");
+        }
+        tree.join(other.tree);
+    }
+
+    /**
+     * Returns a copy of the list, so that later changes to either list do not show in the other
+     * With a PersistentRedBlackTree engine this takes O(1) as the two lists share their nodes,
+     * and the snapshot can be taken by other threads while one thread changes the list
+     * @return the copy
+     * @throws UnsupportedOperationException if the engine of the list cannot take snapshots
+     */
+    public TreeList<E> snapshot() throws UnsupportedOperationException {
+        return new TreeList<>(tree.snapshot());
+    }
+
+    /**
+     * Adds an element to the end of the list and returns a handle to it
+     * The handle keeps pointing at this element however the list changes around it
+     * Takes O(logN)
+     * @param o the object to be added
+     * @return the handle to the added element
+     * @throws NullPointerException if element is null
+     * @throws UnsupportedOperationException if the list does not use the red black tree engine
+     */
+    public Handle<E> addAndGetHandle(E o) throws NullPointerException,UnsupportedOperationException {
+        if (o == null){
+            throw new NullPointerException("Given element is null");
+        }
+        return new Handle<>(redBlackTree().insert(o));
+    }
+
+    /**
+     * Returns a handle to the element at the given index
+     * Takes O(logN)
+     * @param index the index of the element
+     * @return the handle to the element
+     * @throws IndexOutOfBoundsException if index is out of bounds of the array
+     * @throws UnsupportedOperationException if the list does not use the red black tree engine
+     */
+    public Handle<E> handleAt(int index) throws IndexOutOfBoundsException,UnsupportedOperationException {
+        if (index < 0 || index >= size()){
+            throw new IndexOutOfBoundsException("index is out of bounds");
+        }
+        return new Handle<>(redBlackTree().get(index));
+    }
+
+    /**
+     * Gives the current index of the element the handle points at
+     * Takes O(logN) as it climbs from the element to the root
+     * @param handle the handle to the element
+     * @return the index of the element or -1 if it is no longer in this list
+     * @throws NullPointerException if handle is null
+     * @throws UnsupportedOperationException if the list does not use the red black tree engine
+     */
+    public int indexOf(Handle<E> handle) throws NullPointerException,UnsupportedOperationException {
+        if (handle == null){
+            throw new NullPointerException("Given handle is null");
+        }
+        return redBlackTree().getRank(handle.node);
+    }
+
+    /**
+     * Removes the element the handle points at
+     * Takes O(logN)
+     * @param handle the handle to the element
+     * @return true if removed, false if the element is no longer in this list
+     * @throws NullPointerException if handle is null
+     * @throws UnsupportedOperationException if the list does not use the red black tree engine
+     */
+    public boolean remove(Handle<E> handle) throws NullPointerException,UnsupportedOperationException {
+        if (indexOf(handle) == -1){
+            return false;
+        }
+        redBlackTree().delete(handle.node);
+        return true;
+    }
+
+    /**
+     * Replaces the element the handle points at, the handle then points at the new element
+     * Takes O(logN)
+     * @param handle the handle to the element
+     * @param element the element to set it with
+     * @return The value that the element replaced
+     * @throws NullPointerException if handle or element is null
+     * @throws IllegalArgumentException if the element is no longer in this list
+     * @throws UnsupportedOperationException if the list does not use the red black tree engine
+     */
+    public E set(Handle<E> handle, E element) throws NullPointerException,IllegalArgumentException,UnsupportedOperationException {
+        if (element == null){
+            throw new NullPointerException("Given element is null");
+        }
+        if (indexOf(handle) == -1){
+            throw new IllegalArgumentException("handle is not in this list");
+        }
+        return redBlackTree().set(handle.node, element);
+    }
+
+    /**
+     * Returns the red black tree behind the list, which handles need
+     * @return the tree
+     * @throws UnsupportedOperationException if the list uses another engine
+     */
+    private RedBlackTree<E> redBlackTree() throws UnsupportedOperationException {
+        if (!(tree instanceof RedBlackTree)){
+            throw new UnsupportedOperationException("handles need the red black tree engine");
+        }
+        return (RedBlackTree<E>) tree;
+    }
+
+    /**
+     * Opaque reference to one element of a list, which stays valid while the element
+     * is moved around by other inserts and deletes
+     * Handles are compared by identity of the element they point at
+     */
+    public static final class Handle<E> {
+        private final Node<E> node;
+
+        /**
+         * Constructor for the handle
+         * @param node the node holding the element
+         */
+        private Handle(Node<E> node) {
+            this.node = node;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Handle && ((Handle<?>) o).node == node;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(node);
+        }
+    }
 }
@@ -0,0 +1,102 @@
+package com.list.codec;
+
+import com.list.TreeList;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a TreeList to a compact binary form and reads it back
+ * The form is the number of elements as a varint followed by the elements in index order,
+ * each written by the ValueCodec, so the shape of the tree is never written and can not be deep or large
+ *
+ * Writing streams the elements from the iterator of the list, which steps through the tree in order
+ * Reading decodes the elements into a list and builds the tree bottom up from it in O(N),
+ * instead of inserting and rebalancing once per element
+ */
+public class TreeListCodec<E extends Comparable<E>> {
+    private static final int MAX_INITIAL_CAPACITY = 1 << 16; //elements allocated for before any is decoded
+
+    private final ValueCodec<E> codec;
+
+    /**
+     * Constructor to initialize the codec
+     * @param codec the codec for the elements
+     * @throws NullPointerException if codec is null
+     */
+    public TreeListCodec(ValueCodec<E> codec) throws NullPointerException {
+        if (codec == null){
+            throw new NullPointerException("Given codec is null");
+        }
+        this.codec = codec;
+    }
+
+    /**
+     * Writes the list to the stream, which is flushed but not closed
+     * @param list the list to write
+     * @param out the stream to write to
+     * @throws IOException if the stream can not be written
+     */
+    public void write(List<? extends E> list, OutputStream out) throws IOException {
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        VarInts.writeUnsigned(list.size(), data);
+        for (E element : list) {
+            codec.encode(element, data);
+        }
+        data.flush();
+    }
+
+    /**
+     * Writes the list to the channel, which is not closed
+     * @param list the list to write
+     * @param channel the channel to write to
+     * @throws IOException if the channel can not be written
+     */
+    public void write(List<? extends E> list, WritableByteChannel channel) throws IOException {
+        write(list, Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Reads a list written by write from the stream, which is not closed
+     * Nothing past the end of the list is read, so lists written one after another can be read back
+     * the same way. The stream is read as it is, so a slow stream should be buffered by the caller
+     * The elements are decoded into a list which grows as they come, so a corrupt size
+     * ends the stream early instead of allocating for elements which are not there
+     * @param in the stream to read from
+     * @return a new list holding the elements
+     * @throws IOException if the stream can not be read or ends early
+     * @throws NullPointerException if the codec decodes an element as null
+     */
+    public TreeList<E> read(InputStream in) throws IOException, NullPointerException {
+        final DataInputStream data = in instanceof DataInputStream ? (DataInputStream) in : new DataInputStream(in);
+        final long size = VarInts.readUnsigned(data);
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            throw new IOException("list is too long");
+        }
+        final List<E> elements = new ArrayList<>((int) Math.min(size, MAX_INITIAL_CAPACITY));
+        for (long i = 0; i < size; i++) {
+            elements.add(codec.decode(data));
+        }
+        return new TreeList<>(elements);
+    }
+
+    /**
+     * Reads a list written by write from the channel, which is not closed
+     * @param channel the channel to read from
+     * @return a new list holding the elements
+     * @throws IOException if the channel can not be read or ends early
+     * @throws NullPointerException if the codec decodes an element as null
+     */
+    public TreeList<E> read(ReadableByteChannel channel) throws IOException, NullPointerException {
+        return read(Channels.newInputStream(channel));
+    }
+}
@@ -0,0 +1,35 @@
+package com.list.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codec writing strings as a varint length followed by their UTF-8 bytes
+ * Unlike DataOutput.writeUTF it has no 64KB limit
+ */
+final class Utf8Codec implements ValueCodec<String> {
+    static final Utf8Codec INSTANCE = new Utf8Codec();
+
+    private Utf8Codec() {
+    }
+
+    @Override
+    public void encode(final String value, final DataOutput out) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        VarInts.writeUnsigned(bytes.length, out);
+        out.write(bytes);
+    }
+
+    @Override
+    public String decode(final DataInput in) throws IOException {
+        final long length = VarInts.readUnsigned(in);
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("string is too long");
+        }
+        final byte[] bytes = new byte[(int) length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,52 @@
+package com.list.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes single values of a list to bytes and reads them back
+ * The codec decides the width of a value, so a codec only has to read back what it wrote
+ */
+public interface ValueCodec<E> {
+
+    /**
+     * Writes the value
+     * @param value the value to write, never null
+     * @param out where to write it
+     * @throws IOException if it can not be written
+     */
+    void encode(final E value, final DataOutput out) throws IOException;
+
+    /**
+     * Reads a value written by encode
+     * @param in where to read it from
+     * @return the value
+     * @throws IOException if it can not be read
+     */
+    E decode(final DataInput in) throws IOException;
+
+    /**
+     * Returns a codec writing ints as zigzag varints, so small values of either sign take one or two bytes
+     * @return the codec
+     */
+    static ValueCodec<Integer> varInt() {
+        return VarIntCodec.INSTANCE;
+    }
+
+    /**
+     * Returns a codec writing longs as zigzag varints, so small values of either sign take one or two bytes
+     * @return the codec
+     */
+    static ValueCodec<Long> varLong() {
+        return VarLongCodec.INSTANCE;
+    }
+
+    /**
+     * Returns a codec writing strings as their UTF-8 bytes after a varint length
+     * @return the codec
+     */
+    static ValueCodec<String> utf8() {
+        return Utf8Codec.INSTANCE;
+    }
+}
@@ -0,0 +1,25 @@
+package com.list.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Codec writing ints as zigzag varints
+ */
+final class VarIntCodec implements ValueCodec<Integer> {
+    static final VarIntCodec INSTANCE = new VarIntCodec();
+
+    private VarIntCodec() {
+    }
+
+    @Override
+    public void encode(final Integer value, final DataOutput out) throws IOException {
+        VarInts.writeSigned(value, out);
+    }
+
+    @Override
+    public Integer decode(final DataInput in) throws IOException {
+        return (int) VarInts.readSigned(in);
+    }
+}
@@ -0,0 +1,68 @@
+package com.list.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Reads and writes numbers as varints, seven bits a byte with the high bit set on all but the last byte
+ * Signed values are zigzag encoded first so that small negative values stay short as well
+ */
+final class VarInts {
+
+    private VarInts() {
+    }
+
+    /**
+     * Writes the value as an unsigned varint
+     * @param value the value, taken as unsigned
+     * @param out where to write it
+     * @throws IOException if it can not be written
+     */
+    static void writeUnsigned(long value, final DataOutput out) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads an unsigned varint
+     * @param in where to read it from
+     * @return the value
+     * @throws IOException if it can not be read or is longer than ten bytes
+     */
+    static long readUnsigned(final DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("varint is longer than ten bytes");
+    }
+
+    /**
+     * Writes the value zigzag encoded as a varint
+     * @param value the value
+     * @param out where to write it
+     * @throws IOException if it can not be written
+     */
+    static void writeSigned(final long value, final DataOutput out) throws IOException {
+        writeUnsigned((value << 1) ^ (value >> 63), out);
+    }
+
+    /**
+     * Reads a zigzag encoded varint
+     * @param in where to read it from
+     * @return the value
+     * @throws IOException if it can not be read
+     */
+    static long readSigned(final DataInput in) throws IOException {
+        final long zigzag = readUnsigned(in);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
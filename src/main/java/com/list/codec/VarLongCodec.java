@@ -0,0 +1,25 @@
+package com.list.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Codec writing longs as zigzag varints
+ */
+final class VarLongCodec implements ValueCodec<Long> {
+    static final VarLongCodec INSTANCE = new VarLongCodec();
+
+    private VarLongCodec() {
+    }
+
+    @Override
+    public void encode(final Long value, final DataOutput out) throws IOException {
+        VarInts.writeSigned(value, out);
+    }
+
+    @Override
+    public Long decode(final DataInput in) throws IOException {
+        return VarInts.readSigned(in);
+    }
+}
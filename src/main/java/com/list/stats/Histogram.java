@@ -0,0 +1,117 @@
+package com.list.stats;
+
+/**
+ * Histogram of non negative values in buckets whose width grows with the value, like HdrHistogram
+ * Values below 16 get a bucket each, and above that every power of two is split into 8 buckets,
+ * so a value is known to within 12.5% in a fixed 4 KB whatever its range
+ * It is written by one thread without synchronization, so other threads may read counts which are slightly behind
+ */
+final class Histogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR = 2 * SUB_BUCKETS; //values with a bucket each
+    private static final int FIRST_MAGNITUDE = 4; //log2 of LINEAR
+    private static final int BUCKETS = LINEAR + (63 - FIRST_MAGNITUDE) * SUB_BUCKETS;
+
+    private final long[] counts;
+    private long count;
+    private long total;
+    private long max;
+
+    Histogram() {
+        counts = new long[BUCKETS];
+    }
+
+    private Histogram(final Histogram other) {
+        counts = other.counts.clone();
+        count = other.count;
+        total = other.total;
+        max = other.max;
+    }
+
+    /**
+     * Records the value
+     * @param value the value, which is taken as 0 if it is negative
+     */
+    void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[bucketOf(value)]++;
+        count++;
+        total += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Returns a copy which later recordings do not change
+     * @return the copy
+     */
+    Histogram copy() {
+        return new Histogram(this);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values fall,
+     * rounded up to the end of its bucket
+     * @param percentile the percentage, from 0 to 100
+     * @return the value or 0 if nothing was recorded
+     */
+    long getValueAtPercentile(final double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(bucket), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the bucket of the value
+     * @param value the non negative value
+     * @return the bucket
+     */
+    static int bucketOf(final long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (magnitude - FIRST_MAGNITUDE) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the highest value which falls in the bucket
+     * @param bucket the bucket
+     * @return the highest value
+     */
+    static long highestValueIn(final int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        final int magnitude = (bucket - LINEAR) / SUB_BUCKETS + FIRST_MAGNITUDE;
+        final int sub = (bucket - LINEAR) % SUB_BUCKETS;
+        final int shift = magnitude - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKETS + sub) << shift) + (1L << shift) - 1;
+    }
+}
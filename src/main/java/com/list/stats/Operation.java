@@ -0,0 +1,17 @@
+package com.list.stats;
+
+/**
+ * The operations of a TreeList whose latencies are recorded
+ */
+public enum Operation {
+    /** get(int) */
+    GET,
+    /** set(int, E) */
+    SET,
+    /** add(E) and add(int, E) */
+    ADD,
+    /** remove(int) and remove(Object) */
+    REMOVE,
+    /** indexOf, lastIndexOf and contains */
+    SEARCH
+}
@@ -0,0 +1,101 @@
+package com.list.stats;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Counters and histograms of one TreeList, recorded by the thread using the list without synchronization
+ * Metrics are off unless the JVM is started with -Dcom.list.metrics=true
+ * ENABLED is a constant, so with metrics off every recording guarded by it is dead code which the JIT drops,
+ * and lists do not create metrics at all
+ */
+public final class TreeListMetrics {
+    public static final boolean ENABLED = Boolean.getBoolean("com.list.metrics");
+
+    private final Histogram[] latencies = new Histogram[Operation.values().length];
+    private final Histogram depths = new Histogram();
+    private long rotations;
+    private long scans;
+
+    /**
+     * Constructor to initialize empty metrics
+     */
+    public TreeListMetrics() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new Histogram();
+        }
+    }
+
+    /**
+     * Records an operation which started at the given time
+     * @param operation the operation
+     * @param start the System.nanoTime when the operation started
+     */
+    public void record(final Operation operation, final long start) {
+        latencies[operation.ordinal()].record(System.nanoTime() - start);
+    }
+
+    /**
+     * Records a rotation made to rebalance the tree
+     */
+    public void recordRotation() {
+        rotations++;
+    }
+
+    /**
+     * Records a search for an index and the number of nodes it went through
+     * @param depth the number of nodes visited
+     */
+    public void recordSearch(final int depth) {
+        depths.record(depth);
+    }
+
+    /**
+     * Records a search for a value which had to walk the tree in order
+     */
+    public void recordScan() {
+        scans++;
+    }
+
+    /**
+     * Returns a snapshot of the metrics, which later recordings do not change
+     * @param size the number of elements in the list
+     * @param height the height of the tree or -1 if it is not known
+     * @return the snapshot
+     */
+    public TreeListStats snapshot(final int size, final int height) {
+        final Histogram[] copies = new Histogram[latencies.length];
+        for (int i = 0; i < copies.length; i++) {
+            copies[i] = latencies[i].copy();
+        }
+        return new TreeListStats(size, height, rotations, scans, copies, depths.copy());
+    }
+
+    /**
+     * Registers an MXBean under com.list:type=TreeList,name=the given name on the platform MBean server,
+     * which takes a new snapshot from the supplier every time an attribute is read
+     * The server keeps the supplier, and with it the list, until the bean is unregistered
+     * @param name the name of the list
+     * @param stats the supplier of snapshots, which is called by the threads of the JMX connector
+     * @return the name the bean was registered under
+     * @throws JMException if the bean can not be registered
+     */
+    public static ObjectName register(final String name, final Supplier<TreeListStats> stats) throws JMException {
+        final ObjectName objectName = new ObjectName("com.list:type=TreeList,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(
+                new StandardMBean(new TreeListStatsBean(stats), TreeListStatsMXBean.class, true), objectName);
+        return objectName;
+    }
+
+    /**
+     * Unregisters a bean registered by register
+     * @param objectName the name returned by register
+     * @throws JMException if the bean is not registered
+     */
+    public static void unregister(final ObjectName objectName) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+}
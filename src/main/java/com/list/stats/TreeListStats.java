@@ -0,0 +1,120 @@
+package com.list.stats;
+
+/**
+ * Snapshot of the metrics of a TreeList
+ * Latencies are in nanoseconds and rounded up by at most 12.5%
+ */
+public final class TreeListStats {
+    private final int size;
+    private final int height;
+    private final long rotations;
+    private final long scans;
+    private final Histogram[] latencies;
+    private final Histogram depths;
+
+    TreeListStats(int size, int height, long rotations, long scans, Histogram[] latencies, Histogram depths) {
+        this.size = size;
+        this.height = height;
+        this.rotations = rotations;
+        this.scans = scans;
+        this.latencies = latencies;
+        this.depths = depths;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of nodes on the longest path from the root
+     * @return the height or -1 if it was not measured
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns 2 log2(N + 1), which no red black tree of this size is higher than
+     * @return the bound on the height
+     */
+    public double getHeightBound() {
+        return 2 * Math.log(size + 1) / Math.log(2);
+    }
+
+    public long getRotations() {
+        return rotations;
+    }
+
+    /**
+     * Returns the number of adds and removes
+     * @return the number of writes
+     */
+    public long getWrites() {
+        return getCount(Operation.ADD) + getCount(Operation.REMOVE);
+    }
+
+    public double getRotationsPerWrite() {
+        final long writes = getWrites();
+        return writes == 0 ? 0 : (double) rotations / writes;
+    }
+
+    /**
+     * Returns the number of searches for a value which walked the tree in order
+     * instead of looking the value up in the value index
+     * @return the number of scans
+     */
+    public long getScans() {
+        return scans;
+    }
+
+    /**
+     * Returns the number of searches for an index by the engine, which includes those made by writes
+     * @return the number of searches
+     */
+    public long getSearches() {
+        return depths.getCount();
+    }
+
+    public double getMeanSearchDepth() {
+        return depths.getMean();
+    }
+
+    public long getMaxSearchDepth() {
+        return depths.getMax();
+    }
+
+    public long getCount(Operation operation) {
+        return latencies[operation.ordinal()].getCount();
+    }
+
+    /**
+     * Returns the latency below which the given percentage of the operations fall
+     * @param operation the operation
+     * @param percentile the percentage, from 0 to 100
+     * @return the latency in nanoseconds or 0 if there were none
+     */
+    public long getLatency(Operation operation, double percentile) {
+        return latencies[operation.ordinal()].getValueAtPercentile(percentile);
+    }
+
+    public long getMaxLatency(Operation operation) {
+        return latencies[operation.ordinal()].getMax();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+                .append("size=").append(size)
+                .append(" height=").append(height)
+                .append(String.format(" heightBound=%.1f rotationsPerWrite=%.2f meanSearchDepth=%.1f",
+                        getHeightBound(), getRotationsPerWrite(), getMeanSearchDepth()))
+                .append(" scans=").append(scans);
+        for (Operation operation : Operation.values()) {
+            builder.append(' ').append(operation).append("[count=").append(getCount(operation))
+                    .append(" p50=").append(getLatency(operation, 50))
+                    .append(" p99=").append(getLatency(operation, 99))
+                    .append(" max=").append(getMaxLatency(operation)).append(']');
+        }
+        return builder.toString();
+    }
+}
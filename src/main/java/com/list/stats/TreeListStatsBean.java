@@ -0,0 +1,86 @@
+package com.list.stats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * MXBean taking a new snapshot for every attribute read
+ */
+final class TreeListStatsBean implements TreeListStatsMXBean {
+    private final Supplier<TreeListStats> stats;
+
+    TreeListStatsBean(Supplier<TreeListStats> stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public int getSize() {
+        return stats.get().getSize();
+    }
+
+    @Override
+    public double getHeightBound() {
+        return stats.get().getHeightBound();
+    }
+
+    @Override
+    public long getRotations() {
+        return stats.get().getRotations();
+    }
+
+    @Override
+    public double getRotationsPerWrite() {
+        return stats.get().getRotationsPerWrite();
+    }
+
+    @Override
+    public long getScans() {
+        return stats.get().getScans();
+    }
+
+    @Override
+    public double getMeanSearchDepth() {
+        return stats.get().getMeanSearchDepth();
+    }
+
+    @Override
+    public long getMaxSearchDepth() {
+        return stats.get().getMaxSearchDepth();
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        return byOperation((snapshot, operation) -> snapshot.getCount(operation));
+    }
+
+    @Override
+    public Map<String, Long> getMedianLatencies() {
+        return byOperation((snapshot, operation) -> snapshot.getLatency(operation, 50));
+    }
+
+    @Override
+    public Map<String, Long> getP99Latencies() {
+        return byOperation((snapshot, operation) -> snapshot.getLatency(operation, 99));
+    }
+
+    @Override
+    public Map<String, Long> getMaxLatencies() {
+        return byOperation(TreeListStats::getMaxLatency);
+    }
+
+    /**
+     * Reads a number per operation from one snapshot
+     * @param metric the number to read
+     * @return the numbers keyed by operation
+     */
+    private Map<String, Long> byOperation(ToLongBiFunction<TreeListStats, Operation> metric) {
+        final TreeListStats snapshot = stats.get();
+        final Map<String, Long> values = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            values.put(operation.name(), metric.applyAsLong(snapshot, operation));
+        }
+        return values;
+    }
+}
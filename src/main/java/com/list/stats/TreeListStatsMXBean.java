@@ -0,0 +1,32 @@
+package com.list.stats;
+
+import java.util.Map;
+
+/**
+ * JMX view of the metrics of a TreeList, registered by TreeListMetrics.register
+ * Latencies are in nanoseconds and keyed by operation
+ */
+public interface TreeListStatsMXBean {
+
+    int getSize();
+
+    double getHeightBound();
+
+    long getRotations();
+
+    double getRotationsPerWrite();
+
+    long getScans();
+
+    double getMeanSearchDepth();
+
+    long getMaxSearchDepth();
+
+    Map<String, Long> getOperationCounts();
+
+    Map<String, Long> getMedianLatencies();
+
+    Map<String, Long> getP99Latencies();
+
+    Map<String, Long> getMaxLatencies();
+}
@@ -0,0 +1,562 @@
+package com.list.structure;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * Counted B+ tree whose leaves hold chunks of values in arrays of type A
+ * The branches hold the number of values under each of their children,
+ * which is used to find an index the same way the red black tree uses its child counts
+ *
+ * Values are only moved around as whole ranges with System.arraycopy, which works on any array type,
+ * so subclasses pick an Object or primitive array and only read and write single values themselves
+ * A value to insert is staged by the subclass before calling insertAt and stored through store,
+ * and removeAt hands the value it removes to capture
+ */
+abstract class AbstractChunkedTree<A> {
+    static final int LEAF_CAPACITY = 64;
+    static final int BRANCH_CAPACITY = 32;
+    //chunks smaller than these are merged with or topped up from a neighbour after a delete
+    private static final int LEAF_MINIMUM = LEAF_CAPACITY / 4;
+    private static final int BRANCH_MINIMUM = BRANCH_CAPACITY / 4;
+
+    Chunk root;
+    int height; //number of branch levels above the leaves
+    int modCount = 0; //number of structural changes, used by iterators to fail fast
+    int offset; //slot of the value in the leaf found by the last locate
+
+    /**
+     * Constructor to initialize the structure
+     */
+    AbstractChunkedTree() {
+        root = new Leaf<>(newValues());
+    }
+
+    /**
+     * A node of the tree, knowing the number of values under it
+     */
+    abstract static class Chunk {
+        int size;
+    }
+
+    /**
+     * A leaf holding up to LEAF_CAPACITY values in order
+     */
+    static final class Leaf<A> extends Chunk {
+        final A values;
+        Leaf<A> next; //the leaf holding the values after this one
+
+        Leaf(final A values) {
+            this.values = values;
+        }
+    }
+
+    /**
+     * A branch holding up to BRANCH_CAPACITY children along with the number of values under each
+     */
+    static final class Branch extends Chunk {
+        final Chunk[] children = new Chunk[BRANCH_CAPACITY];
+        final int[] counts = new int[BRANCH_CAPACITY];
+        int childCount;
+    }
+
+    /**
+     * Creates the array for a new leaf, able to hold LEAF_CAPACITY values
+     * @return the array
+     */
+    abstract A newValues();
+
+    /**
+     * Stores the value staged for insertAt in the array
+     * @param values the array of the leaf
+     * @param offset the slot to store the value in
+     */
+    abstract void store(final A values, final int offset);
+
+    /**
+     * Keeps the value which removeAt is about to remove from the array
+     * @param values the array of the leaf
+     * @param offset the slot of the value
+     */
+    abstract void capture(final A values, final int offset);
+
+    /**
+     * Copies the values staged for build into the array of a leaf
+     * @param values the array of the leaf
+     * @param from the index of the first value to copy
+     * @param count the number of values to copy
+     */
+    abstract void fill(final A values, final int from, final int count);
+
+    /**
+     * Clears slots which no longer hold a value
+     * Only arrays of objects need this, so that the values they referred to can be collected
+     * @param values the array of the leaf
+     * @param from the first slot, inclusive
+     * @param to the last slot, exclusive
+     */
+    void clearValues(final A values, final int from, final int to) {
+    }
+
+    /**
+     * Returns the number of elements in the tree
+     * @return the size of the tree
+     */
+    public int size() {
+        return root.size;
+    }
+
+    /**
+     * Returns if the tree is empty
+     * @return true if the tree is empty
+     */
+    public boolean isEmpty() {
+        return root.size == 0;
+    }
+
+    /**
+     * Clears the tree
+     */
+    public void clear() {
+        root = new Leaf<>(newValues());
+        height = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns the number of structural changes made to the tree
+     * @return the modification count
+     */
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Finds the leaf holding the value at the given index and keeps the slot of the value in offset
+     * Takes O(logN)
+     * @param index the index of the value
+     * @return the leaf holding the value
+     */
+    @SuppressWarnings("unchecked")
+    final Leaf<A> locate(int index) {
+        Chunk chunk = root;
+        for (int level = height; level > 0; level--) {
+            final Branch branch = (Branch) chunk;
+            int child = 0;
+            while (index >= branch.counts[child]) {
+                index -= branch.counts[child++];
+            }
+            chunk = branch.children[child];
+        }
+        offset = index;
+        return (Leaf<A>) chunk;
+    }
+
+    /**
+     * Inserts the staged value at the given index, splitting full chunks on the way back up
+     * Takes O(logN)
+     * @param index the location where to insert the value
+     */
+    final void insertAt(final int index) {
+        final Chunk sibling = insert(root, height, index);
+        if (sibling != null) {
+            //the root was split so the tree grows a level
+            final Branch branch = new Branch();
+            placeChild(branch, 0, root);
+            placeChild(branch, 1, sibling);
+            branch.size = root.size + sibling.size;
+            root = branch;
+            height++;
+        }
+        modCount++;
+    }
+
+    /**
+     * Inserts the staged value into the subtree of the given chunk
+     * @param chunk the root of the subtree
+     * @param level the number of branch levels in the subtree
+     * @param index the index within the subtree
+     * @return the new chunk to place after the given one if it had to be split, otherwise null
+     */
+    @SuppressWarnings("unchecked")
+    private Chunk insert(final Chunk chunk, final int level, int index) {
+        if (level == 0) {
+            return insertIntoLeaf((Leaf<A>) chunk, index);
+        }
+        final Branch branch = (Branch) chunk;
+        int child = 0;
+        //an index at the end of a child goes to that child so appends stay in the last leaf
+        while (child < branch.childCount - 1 && index > branch.counts[child]) {
+            index -= branch.counts[child++];
+        }
+        final Chunk sibling = insert(branch.children[child], level - 1, index);
+        branch.size++;
+        branch.counts[child] = branch.children[child].size;
+        if (sibling == null) {
+            return null;
+        }
+        return insertChild(branch, child + 1, sibling);
+    }
+
+    /**
+     * Inserts the staged value into the leaf, splitting it if it is full
+     * @param leaf the leaf to insert into
+     * @param index the index within the leaf
+     * @return the new leaf after the given one if it had to be split, otherwise null
+     */
+    private Leaf<A> insertIntoLeaf(final Leaf<A> leaf, final int index) {
+        if (leaf.size < LEAF_CAPACITY) {
+            placeValue(leaf, index);
+            return null;
+        }
+        final Leaf<A> right = new Leaf<>(newValues());
+        right.next = leaf.next;
+        leaf.next = right;
+        if (index == LEAF_CAPACITY) {
+            //appending to a full leaf starts a new one, so a run of appends leaves full leaves behind
+            placeValue(right, 0);
+            return right;
+        }
+        final int half = LEAF_CAPACITY / 2;
+        System.arraycopy(leaf.values, half, right.values, 0, LEAF_CAPACITY - half);
+        clearValues(leaf.values, half, LEAF_CAPACITY);
+        leaf.size = half;
+        right.size = LEAF_CAPACITY - half;
+        if (index <= half) {
+            placeValue(leaf, index);
+        } else {
+            placeValue(right, index - half);
+        }
+        return right;
+    }
+
+    /**
+     * Inserts the child into the branch, splitting it if it is full
+     * The size of the branch must already count the values of the child
+     * @param branch the branch to insert into
+     * @param position the position of the child within the branch
+     * @param chunk the child to insert
+     * @return the new branch after the given one if it had to be split, otherwise null
+     */
+    private static Branch insertChild(final Branch branch, final int position, final Chunk chunk) {
+        if (branch.childCount < BRANCH_CAPACITY) {
+            placeChild(branch, position, chunk);
+            return null;
+        }
+        final Branch right = new Branch();
+        final int half = BRANCH_CAPACITY / 2;
+        System.arraycopy(branch.children, half, right.children, 0, BRANCH_CAPACITY - half);
+        System.arraycopy(branch.counts, half, right.counts, 0, BRANCH_CAPACITY - half);
+        Arrays.fill(branch.children, half, BRANCH_CAPACITY, null);
+        branch.childCount = half;
+        right.childCount = BRANCH_CAPACITY - half;
+        if (position <= half) {
+            placeChild(branch, position, chunk);
+        } else {
+            placeChild(right, position - half, chunk);
+        }
+        right.size = sumCounts(right, 0, right.childCount);
+        branch.size -= right.size;
+        return right;
+    }
+
+    /**
+     * Removes the value at the given index, merging chunks which get too small on the way back up
+     * The value is handed to capture before it is overwritten
+     * Takes O(logN)
+     * @param index the index of the value to remove
+     */
+    final void removeAt(final int index) {
+        remove(root, height, index);
+        while (height > 0 && ((Branch) root).childCount == 1) {
+            root = ((Branch) root).children[0];
+            height--;
+        }
+        modCount++;
+    }
+
+    /**
+     * Removes the value from the subtree of the given chunk
+     * @param chunk the root of the subtree
+     * @param level the number of branch levels in the subtree
+     * @param index the index within the subtree
+     */
+    @SuppressWarnings("unchecked")
+    private void remove(final Chunk chunk, final int level, int index) {
+        if (level == 0) {
+            final Leaf<A> leaf = (Leaf<A>) chunk;
+            capture(leaf.values, index);
+            System.arraycopy(leaf.values, index + 1, leaf.values, index, leaf.size - index - 1);
+            leaf.size--;
+            clearValues(leaf.values, leaf.size, leaf.size + 1);
+            return;
+        }
+        final Branch branch = (Branch) chunk;
+        int child = 0;
+        while (index >= branch.counts[child]) {
+            index -= branch.counts[child++];
+        }
+        remove(branch.children[child], level - 1, index);
+        branch.size--;
+        branch.counts[child]--;
+        final Chunk removedFrom = branch.children[child];
+        if (level == 1 ? removedFrom.size < LEAF_MINIMUM : ((Branch) removedFrom).childCount < BRANCH_MINIMUM) {
+            rebalance(branch, child, level - 1);
+        }
+    }
+
+    /**
+     * Merges the child of the branch with a neighbour, or moves values over from the neighbour
+     * if both would not fit into one chunk
+     * @param branch the branch holding the child
+     * @param child the position of the child which got too small
+     * @param level the number of branch levels in the subtree of the child
+     */
+    @SuppressWarnings("unchecked")
+    private void rebalance(final Branch branch, final int child, final int level) {
+        if (branch.childCount == 1) {
+            return;
+        }
+        final int first = child == 0 ? 0 : child - 1;
+        if (level == 0) {
+            final Leaf<A> left = (Leaf<A>) branch.children[first];
+            final Leaf<A> right = (Leaf<A>) branch.children[first + 1];
+            if (left.size + right.size <= LEAF_CAPACITY) {
+                System.arraycopy(right.values, 0, left.values, left.size, right.size);
+                left.size += right.size;
+                left.next = right.next;
+                removeChild(branch, first + 1);
+            } else {
+                shareValues(left, right);
+            }
+        } else {
+            final Branch left = (Branch) branch.children[first];
+            final Branch right = (Branch) branch.children[first + 1];
+            if (left.childCount + right.childCount <= BRANCH_CAPACITY) {
+                System.arraycopy(right.children, 0, left.children, left.childCount, right.childCount);
+                System.arraycopy(right.counts, 0, left.counts, left.childCount, right.childCount);
+                left.childCount += right.childCount;
+                left.size += right.size;
+                removeChild(branch, first + 1);
+            } else {
+                shareChildren(left, right);
+            }
+        }
+        branch.counts[first] = branch.children[first].size;
+        if (first + 1 < branch.childCount) {
+            branch.counts[first + 1] = branch.children[first + 1].size;
+        }
+    }
+
+    /**
+     * Moves values between two neighbouring leaves so they hold half each
+     * @param left the first leaf
+     * @param right the leaf after it
+     */
+    private void shareValues(final Leaf<A> left, final Leaf<A> right) {
+        final int target = (left.size + right.size) / 2;
+        if (left.size < target) {
+            final int moved = target - left.size;
+            System.arraycopy(right.values, 0, left.values, left.size, moved);
+            System.arraycopy(right.values, moved, right.values, 0, right.size - moved);
+            clearValues(right.values, right.size - moved, right.size);
+            left.size += moved;
+            right.size -= moved;
+        } else {
+            final int moved = left.size - target;
+            System.arraycopy(right.values, 0, right.values, moved, right.size);
+            System.arraycopy(left.values, target, right.values, 0, moved);
+            clearValues(left.values, target, left.size);
+            left.size -= moved;
+            right.size += moved;
+        }
+    }
+
+    /**
+     * Moves children between two neighbouring branches so they hold half each
+     * @param left the first branch
+     * @param right the branch after it
+     */
+    private static void shareChildren(final Branch left, final Branch right) {
+        final int target = (left.childCount + right.childCount) / 2;
+        if (left.childCount < target) {
+            final int moved = target - left.childCount;
+            final int movedSize = sumCounts(right, 0, moved);
+            System.arraycopy(right.children, 0, left.children, left.childCount, moved);
+            System.arraycopy(right.counts, 0, left.counts, left.childCount, moved);
+            System.arraycopy(right.children, moved, right.children, 0, right.childCount - moved);
+            System.arraycopy(right.counts, moved, right.counts, 0, right.childCount - moved);
+            Arrays.fill(right.children, right.childCount - moved, right.childCount, null);
+            left.childCount += moved;
+            right.childCount -= moved;
+            left.size += movedSize;
+            right.size -= movedSize;
+        } else {
+            final int moved = left.childCount - target;
+            final int movedSize = sumCounts(left, target, left.childCount);
+            System.arraycopy(right.children, 0, right.children, moved, right.childCount);
+            System.arraycopy(right.counts, 0, right.counts, moved, right.childCount);
+            System.arraycopy(left.children, target, right.children, 0, moved);
+            System.arraycopy(left.counts, target, right.counts, 0, moved);
+            Arrays.fill(left.children, target, left.childCount, null);
+            left.childCount -= moved;
+            right.childCount += moved;
+            left.size -= movedSize;
+            right.size += movedSize;
+        }
+    }
+
+    /**
+     * Replaces the contents of the tree with the given number of values staged for fill
+     * Fills the leaves and then the branches level by level, which takes O(N)
+     * @param size the number of values
+     */
+    final void build(final int size) {
+        clear();
+        if (size == 0) {
+            return;
+        }
+        Chunk[] level = new Chunk[(size + LEAF_CAPACITY - 1) / LEAF_CAPACITY];
+        Leaf<A> previous = null;
+        for (int i = 0; i < level.length; i++) {
+            //spreading the values evenly keeps every leaf at least half full
+            final int from = (int) ((long) size * i / level.length);
+            final int to = (int) ((long) size * (i + 1) / level.length);
+            final Leaf<A> leaf = new Leaf<>(newValues());
+            fill(leaf.values, from, to - from);
+            leaf.size = to - from;
+            if (previous != null) {
+                previous.next = leaf;
+            }
+            previous = leaf;
+            level[i] = leaf;
+        }
+        while (level.length > 1) {
+            final Chunk[] above = new Chunk[(level.length + BRANCH_CAPACITY - 1) / BRANCH_CAPACITY];
+            for (int i = 0; i < above.length; i++) {
+                final int from = (int) ((long) level.length * i / above.length);
+                final int to = (int) ((long) level.length * (i + 1) / above.length);
+                final Branch branch = new Branch();
+                for (int j = from; j < to; j++) {
+                    placeChild(branch, j - from, level[j]);
+                    branch.size += level[j].size;
+                }
+                above[i] = branch;
+            }
+            level = above;
+            height++;
+        }
+        root = level[0];
+    }
+
+    /**
+     * Copies the values in order into the given array, a leaf at a time
+     * @param target an array of the same type as the leaves, holding at least size() values
+     */
+    final void copyInto(final A target) {
+        int copied = 0;
+        for (Leaf<A> leaf = firstLeaf(); copied < size(); leaf = leaf.next) {
+            System.arraycopy(leaf.values, 0, target, copied, leaf.size);
+            copied += leaf.size;
+        }
+    }
+
+    /**
+     * Returns the leaf holding the first values
+     * @return the first leaf
+     */
+    @SuppressWarnings("unchecked")
+    final Leaf<A> firstLeaf() {
+        Chunk chunk = root;
+        for (int level = height; level > 0; level--) {
+            chunk = ((Branch) chunk).children[0];
+        }
+        return (Leaf<A>) chunk;
+    }
+
+    /**
+     * Walks along the leaves from first to last, telling its subclass where to read the next value
+     * Each step takes O(1) and it fails fast if the tree is structurally changed
+     */
+    abstract class Cursor {
+        Leaf<A> leaf = firstLeaf();
+        private int position;
+        private int remaining = size();
+        private final int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        /**
+         * Moves on to the next value
+         * @return the slot of the next value within leaf
+         */
+        final int advance() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            if (position == leaf.size) {
+                leaf = leaf.next;
+                position = 0;
+            }
+            remaining--;
+            return position++;
+        }
+    }
+
+    /**
+     * Inserts the staged value into a leaf which has room for it
+     * @param leaf the leaf to insert into
+     * @param index the index within the leaf
+     */
+    private void placeValue(final Leaf<A> leaf, final int index) {
+        System.arraycopy(leaf.values, index, leaf.values, index + 1, leaf.size - index);
+        store(leaf.values, index);
+        leaf.size++;
+    }
+
+    /**
+     * Inserts the child into a branch which has room for it, without changing the size of the branch
+     * @param branch the branch to insert into
+     * @param position the position of the child within the branch
+     * @param chunk the child to insert
+     */
+    private static void placeChild(final Branch branch, final int position, final Chunk chunk) {
+        System.arraycopy(branch.children, position, branch.children, position + 1, branch.childCount - position);
+        System.arraycopy(branch.counts, position, branch.counts, position + 1, branch.childCount - position);
+        branch.children[position] = chunk;
+        branch.counts[position] = chunk.size;
+        branch.childCount++;
+    }
+
+    /**
+     * Removes the child from the branch, without changing the size of the branch
+     * @param branch the branch to remove from
+     * @param position the position of the child within the branch
+     */
+    private static void removeChild(final Branch branch, final int position) {
+        System.arraycopy(branch.children, position + 1, branch.children, position, branch.childCount - position - 1);
+        System.arraycopy(branch.counts, position + 1, branch.counts, position, branch.childCount - position - 1);
+        branch.children[--branch.childCount] = null;
+    }
+
+    /**
+     * Adds up the number of values under the children of the branch in the given range
+     * @param branch the branch
+     * @param from the position of the first child, inclusive
+     * @param to the position of the last child, exclusive
+     * @return the number of values under the children
+     */
+    private static int sumCounts(final Branch branch, final int from, final int to) {
+        int sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += branch.counts[i];
+        }
+        return sum;
+    }
+}
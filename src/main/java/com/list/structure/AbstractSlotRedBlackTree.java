@@ -0,0 +1,522 @@
+package com.list.structure;
+
+/**
+ * Red black tree with the same order statistics as RedBlackTree, whose nodes are slot numbers
+ * instead of objects
+ * Subclasses decide where the links, subtree size and colour of a slot are stored, and keep its value,
+ * while the walks, rotations and fix-ups here work only through the slot accessors
+ *
+ * Slot 0 is the nil node, black with a size of 0, and is never written
+ * Deleted slots go on a free list, chained through the left links, and are handed out again before
+ * the storage grows, so a slot keeps its value until the subclass clears or overwrites it
+ */
+abstract class AbstractSlotRedBlackTree {
+    static final int NIL = 0;
+
+    int root = NIL;
+    int used = 1; //slots below this have been handed out at some point
+    private int free = NIL; //first slot of the free list or nil
+    int modCount = 0; //number of structural changes, used by iterators to fail fast
+
+    abstract int left(final int node);
+
+    abstract void setLeft(final int node, final int left);
+
+    abstract int right(final int node);
+
+    abstract void setRight(final int node, final int right);
+
+    abstract int parent(final int node);
+
+    abstract void setParent(final int node, final int parent);
+
+    /**
+     * Returns the number of nodes in the subtree of the slot
+     * @param node the slot of the node
+     * @return the size of the subtree, 0 for nil
+     */
+    abstract int count(final int node);
+
+    abstract void setCount(final int node, final int count);
+
+    abstract boolean isRed(final int node);
+
+    abstract void setRed(final int node, final boolean isRed);
+
+    /**
+     * Returns the number of slots the storage holds, including the nil slot
+     * @return the capacity
+     */
+    abstract int capacity();
+
+    /**
+     * Makes room for more slots, keeping the ones in use
+     */
+    abstract void grow();
+
+    /**
+     * Replaces the storage with empty storage for the given number of slots,
+     * where every slot reads as a black node of size 0 with nil links
+     * @param capacity the number of slots, including the nil slot
+     */
+    abstract void resetSlots(final int capacity);
+
+    /**
+     * Returns the number of elements in the tree
+     * @return the size of the tree
+     */
+    public int size() {
+        return count(root);
+    }
+
+    /**
+     * Returns if the tree is empty
+     * @return true if the tree is empty
+     */
+    public boolean isEmpty() {
+        return root == NIL;
+    }
+
+    /**
+     * Returns the number of structural changes made to the tree
+     * @return the modification count
+     */
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Empties the tree, leaving storage for the given number of slots
+     * @param capacity the number of slots, including the nil slot
+     */
+    final void reset(final int capacity) {
+        resetSlots(capacity);
+        root = NIL;
+        used = 1;
+        free = NIL;
+    }
+
+    /**
+     * Returns the slot of the node at the index, walking down by the sizes of the left subtrees
+     * Takes O(logN)
+     * @param index the index of the node
+     * @return the slot of the node
+     */
+    final int get(int index) {
+        int searcher = root;
+        while (searcher != NIL) {
+            final int leftSize = count(left(searcher));
+            if (index == leftSize) {
+                return searcher;
+            } else if (index < leftSize) {
+                searcher = left(searcher);
+            } else {
+                index -= leftSize + 1;
+                searcher = right(searcher);
+            }
+        }
+        return NIL;
+    }
+
+    /**
+     * Links a new slot in at the given index and rebalances the tree
+     * The new node is attached as a leaf just before the node currently at the index,
+     * either as its left child or as the right child of its predecessor
+     * Takes O(logN)
+     * @param index the location of the new node
+     * @return the slot of the new node, for the subclass to store its value in
+     */
+    final int insert(final int index) {
+        int current;
+        final int toInsert;
+        if (index == size()) {
+            toInsert = allocate();
+            if (root == NIL) {
+                current = NIL;
+                root = toInsert;
+            } else {
+                current = getMaximumNode(root);
+                setRight(current, toInsert);
+            }
+        } else {
+            current = get(index);
+            toInsert = allocate();
+            if (left(current) == NIL) {
+                setLeft(current, toInsert);
+            } else {
+                current = getMaximumNode(left(current));
+                setRight(current, toInsert);
+            }
+        }
+        setParent(toInsert, current);
+        for (; current != NIL; current = parent(current)) {
+            setCount(current, count(current) + 1);
+        }
+        insertFix(toInsert);
+        modCount++;
+        return toInsert;
+    }
+
+    /**
+     * Takes a slot off the free list, or a new one if the list is empty, and sets it up as a red leaf
+     * @return the slot
+     */
+    private int allocate() {
+        final int node;
+        if (free != NIL) {
+            node = free;
+            free = left(node);
+        } else {
+            if (used == capacity()) {
+                grow();
+            }
+            node = used++;
+        }
+        setLeft(node, NIL);
+        setRight(node, NIL);
+        setParent(node, NIL);
+        setCount(node, 1);
+        setRed(node, true);
+        return node;
+    }
+
+    /**
+     * Fixes the violations of the red black properties an insert can cause
+     * @param inserted the node that was inserted
+     */
+    private void insertFix(int inserted) {
+        while (isRed(parent(inserted))) {
+            final int p = parent(inserted);
+            final int grandparent = parent(p);
+            if (p == left(grandparent)) {
+                final int y = right(grandparent);
+                if (isRed(y)) {
+                    //case 1, the uncle is red as well so the colours move up
+                    setRed(p, false);
+                    setRed(y, false);
+                    setRed(grandparent, true);
+                    inserted = grandparent;
+                } else {
+                    if (inserted == right(p)) {
+                        //case 2, turned into case 3 by a rotation
+                        inserted = p;
+                        leftRotate(inserted);
+                    }
+                    //case 3
+                    setRed(parent(inserted), false);
+                    setRed(parent(parent(inserted)), true);
+                    rightRotate(parent(parent(inserted)));
+                }
+            } else {
+                final int y = left(grandparent);
+                if (isRed(y)) {
+                    //case 1
+                    setRed(p, false);
+                    setRed(y, false);
+                    setRed(grandparent, true);
+                    inserted = grandparent;
+                } else {
+                    if (inserted == left(p)) {
+                        //case 2
+                        inserted = p;
+                        rightRotate(inserted);
+                    }
+                    //case 3
+                    setRed(parent(inserted), false);
+                    setRed(parent(parent(inserted)), true);
+                    leftRotate(parent(parent(inserted)));
+                }
+            }
+        }
+        setRed(root, false);
+    }
+
+    /**
+     * Rotates the given node x and its right child in a left orientation
+     * @param x the node to rotate
+     */
+    private void leftRotate(final int x) {
+        final int y = right(x);
+        setRight(x, left(y));
+        if (left(y) != NIL) {
+            setParent(left(y), x);
+        }
+        final int p = parent(x);
+        setParent(y, p);
+        setLeft(y, x);
+        //y takes over the whole subtree of x, the parent keeps its size
+        setCount(y, count(x));
+        setCount(x, count(left(x)) + count(right(x)) + 1);
+        if (p == NIL) {
+            root = y;
+        } else if (x == left(p)) {
+            setLeft(p, y);
+        } else {
+            setRight(p, y);
+        }
+        setParent(x, y);
+    }
+
+    /**
+     * Rotates the given node y and its left child in a right orientation
+     * @param y the node to rotate
+     */
+    private void rightRotate(final int y) {
+        final int x = left(y);
+        setLeft(y, right(x));
+        if (right(x) != NIL) {
+            setParent(right(x), y);
+        }
+        final int p = parent(y);
+        setParent(x, p);
+        setRight(x, y);
+        //x takes over the whole subtree of y, the parent keeps its size
+        setCount(x, count(y));
+        setCount(y, count(left(y)) + count(right(y)) + 1);
+        if (p == NIL) {
+            root = x;
+        } else if (y == right(p)) {
+            setRight(p, x);
+        } else {
+            setLeft(p, x);
+        }
+        setParent(y, x);
+    }
+
+    /**
+     * Unlinks the node at the given index, rebalances the tree and puts the slot on the free list
+     * The slot keeps its value, so the subclass can still read it
+     * Takes O(logN)
+     * @param index the index of the node to remove
+     * @return the slot of the removed node
+     */
+    final int delete(final int index) {
+        final int toDelete = get(index);
+        int y = toDelete;
+        boolean yRed = isRed(y); //saving original color to test at the end
+        final int x;
+        final int xParent; //kept apart from x as x can be the nil slot
+        if (left(toDelete) == NIL) {
+            x = right(toDelete);
+            xParent = parent(toDelete);
+            transplant(toDelete, x);
+        } else if (right(toDelete) == NIL) {
+            x = left(toDelete);
+            xParent = parent(toDelete);
+            transplant(toDelete, x);
+        } else {
+            y = getMinimumNode(right(toDelete));
+            yRed = isRed(y);
+            x = right(y);
+            if (parent(y) == toDelete) {
+                xParent = y;
+            } else {
+                xParent = parent(y);
+                transplant(y, right(y));
+                setRight(y, right(toDelete));
+                setParent(right(y), y);
+            }
+            transplant(toDelete, y);
+            setLeft(y, left(toDelete));
+            setParent(left(y), y);
+            setRed(y, isRed(toDelete));
+            //y has taken over the subtree of the deleted node, and loses a node below like the rest
+            setCount(y, count(toDelete));
+        }
+        //every node from where x now hangs up to the root has lost a node
+        for (int node = xParent; node != NIL; node = parent(node)) {
+            setCount(node, count(node) - 1);
+        }
+        if (!yRed) {
+            deleteFix(x, xParent);
+        }
+        setLeft(toDelete, free);
+        free = toDelete;
+        modCount++;
+        return toDelete;
+    }
+
+    /**
+     * Puts node v in the place of node u under the parent of u
+     * @param u the node which will be replaced
+     * @param v the node which will be used for replacement
+     */
+    private void transplant(final int u, final int v) {
+        final int p = parent(u);
+        if (p == NIL) {
+            root = v;
+        } else if (u == left(p)) {
+            setLeft(p, v);
+        } else {
+            setRight(p, v);
+        }
+        if (v != NIL) {
+            setParent(v, p);
+        }
+    }
+
+    /**
+     * Fixes the violations of the red black properties a delete can cause
+     * @param x the node that took the place of the deleted node
+     * @param xParent the parent of x
+     */
+    private void deleteFix(int x, int xParent) {
+        int w;
+        while (x != root && !isRed(x)) {
+            if (x == left(xParent)) {
+                w = right(xParent);
+                if (isRed(w)) {
+                    //case 1
+                    setRed(w, false);
+                    setRed(xParent, true);
+                    leftRotate(xParent);
+                    w = right(xParent);
+                }
+                if (!isRed(left(w)) && !isRed(right(w))) {
+                    //case 2
+                    setRed(w, true);
+                    x = xParent;
+                    xParent = parent(x);
+                } else {
+                    if (!isRed(right(w))) {
+                        //case 3
+                        setRed(left(w), false);
+                        setRed(w, true);
+                        rightRotate(w);
+                        w = right(xParent);
+                    }
+                    //case 4
+                    setRed(w, isRed(xParent));
+                    setRed(xParent, false);
+                    setRed(right(w), false);
+                    leftRotate(xParent);
+                    x = root;
+                }
+            } else {
+                //right left interchanged
+                w = left(xParent);
+                if (isRed(w)) {
+                    //case 1
+                    setRed(w, false);
+                    setRed(xParent, true);
+                    rightRotate(xParent);
+                    w = left(xParent);
+                }
+                if (!isRed(right(w)) && !isRed(left(w))) {
+                    //case 2
+                    setRed(w, true);
+                    x = xParent;
+                    xParent = parent(x);
+                } else {
+                    if (!isRed(left(w))) {
+                        //case 3
+                        setRed(right(w), false);
+                        setRed(w, true);
+                        leftRotate(w);
+                        w = left(xParent);
+                    }
+                    //case 4
+                    setRed(w, isRed(xParent));
+                    setRed(xParent, false);
+                    setRed(left(w), false);
+                    rightRotate(xParent);
+                    x = root;
+                }
+            }
+        }
+        if (x != NIL) {
+            setRed(x, false);
+        }
+    }
+
+    /**
+     * Empties the tree and links slots 1 to count into a balanced tree,
+     * so that the value at index i belongs in slot i + 1
+     * Every range is rooted at its middle slot, which takes O(N)
+     * @param count the number of values
+     */
+    final void build(final int count) {
+        reset(count + 1);
+        used = count + 1;
+        root = build(0, count, 0, 31 - Integer.numberOfLeadingZeros(count + 1));
+        modCount++;
+    }
+
+    /**
+     * Links the slots of the values between from and to into a balanced subtree
+     * Nodes on the last, partially filled level are coloured red and the rest black,
+     * which gives every path the same number of black nodes
+     * @param from the first index of the range, inclusive
+     * @param to the last index of the range, exclusive
+     * @param depth the depth of the subtree root
+     * @param redDepth the depth of the partially filled level
+     * @return the root of the subtree or nil if the range is empty
+     */
+    private int build(final int from, final int to, final int depth, final int redDepth) {
+        if (from >= to) {
+            return NIL;
+        }
+        final int mid = (from + to) >>> 1;
+        final int node = mid + 1;
+        final int left = build(from, mid, depth + 1, redDepth);
+        final int right = build(mid + 1, to, depth + 1, redDepth);
+        setLeft(node, left);
+        setRight(node, right);
+        if (left != NIL) {
+            setParent(left, node);
+        }
+        if (right != NIL) {
+            setParent(right, node);
+        }
+        setCount(node, to - from);
+        setRed(node, depth == redDepth);
+        return node;
+    }
+
+    /**
+     * Gets the node with the least index under the given node
+     * @param node the node from where to find the minimum node
+     * @return the slot of the minimum node
+     */
+    final int getMinimumNode(int node) {
+        while (left(node) != NIL) {
+            node = left(node);
+        }
+        return node;
+    }
+
+    /**
+     * Gets the node with the greatest index under the given node
+     * @param node the node from where to find the maximum node
+     * @return the slot of the maximum node
+     */
+    final int getMaximumNode(int node) {
+        while (right(node) != NIL) {
+            node = right(node);
+        }
+        return node;
+    }
+
+    /**
+     * Gets the node which comes after the given node in index order
+     * @param node the node to start from
+     * @return the next node or nil if node is the last one
+     */
+    final int successor(int node) {
+        if (right(node) != NIL) {
+            return getMinimumNode(right(node));
+        }
+        while (parent(node) != NIL && node == right(parent(node))) {
+            node = parent(node);
+        }
+        return parent(node);
+    }
+
+    /**
+     * Gets the node holding the first value
+     * @return the first node or nil if the tree is empty
+     */
+    final int first() {
+        return root == NIL ? NIL : getMinimumNode(root);
+    }
+}
@@ -0,0 +1,260 @@
+package com.list.structure;
+
+import com.list.structure.interfaces.PositionalTree;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Red black tree with the same order statistics as RedBlackTree, stored as a struct of arrays
+ * A node is a slot number: its links, subtree size and value sit at that slot of parallel arrays,
+ * and its colour is a bit of a bitset, so the whole tree is a handful of arrays however many values it holds
+ * This keeps the garbage collector from having to mark a node object per value in big, long lived lists
+ * Nodes cannot be handed out as handles, which is why this is an engine and not an interfaces.RedBlackTree
+ */
+public class ArrayRedBlackTree<E> extends AbstractSlotRedBlackTree implements PositionalTree<E> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private int[] size; //number of nodes in the subtree of each slot
+    private long[] red; //bitset of the red slots, anything else is black
+    private Object[] values;
+
+    /**
+     * Constructor to initialize the structure
+     */
+    public ArrayRedBlackTree() {
+        reset(INITIAL_CAPACITY);
+    }
+
+    @Override
+    int left(final int node) {
+        return left[node];
+    }
+
+    @Override
+    void setLeft(final int node, final int left) {
+        this.left[node] = left;
+    }
+
+    @Override
+    int right(final int node) {
+        return right[node];
+    }
+
+    @Override
+    void setRight(final int node, final int right) {
+        this.right[node] = right;
+    }
+
+    @Override
+    int parent(final int node) {
+        return parent[node];
+    }
+
+    @Override
+    void setParent(final int node, final int parent) {
+        this.parent[node] = parent;
+    }
+
+    @Override
+    int count(final int node) {
+        return size[node];
+    }
+
+    @Override
+    void setCount(final int node, final int count) {
+        size[node] = count;
+    }
+
+    @Override
+    boolean isRed(final int node) {
+        return (red[node >>> 6] & (1L << node)) != 0;
+    }
+
+    @Override
+    void setRed(final int node, final boolean isRed) {
+        if (isRed) {
+            red[node >>> 6] |= 1L << node;
+        } else {
+            red[node >>> 6] &= ~(1L << node);
+        }
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Grows the arrays by half their length, and to the initial capacity at least,
+     * as loading no values leaves them holding only the nil slot
+     */
+    @Override
+    void grow() {
+        final int capacity = Math.max(values.length + (values.length >> 1), INITIAL_CAPACITY);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        size = Arrays.copyOf(size, capacity);
+        red = Arrays.copyOf(red, (capacity + 63) >>> 6);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void resetSlots(final int capacity) {
+        left = new int[capacity];
+        right = new int[capacity];
+        parent = new int[capacity];
+        size = new int[capacity];
+        red = new long[(capacity + 63) >>> 6];
+        values = new Object[capacity];
+    }
+
+    /**
+     * Clears the tree and lets go of the arrays
+     */
+    @Override
+    public void clear() {
+        reset(INITIAL_CAPACITY);
+        modCount++;
+    }
+
+    /**
+     * Returns the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E getValue(final int index) {
+        return (E) values[get(index)];
+    }
+
+    /**
+     * Sets the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(final int index, final E value) {
+        final int node = get(index);
+        final E valReturn = (E) values[node];
+        values[node] = value;
+        return valReturn;
+    }
+
+    /**
+     * Inserts the value at the given index
+     * Takes O(logN)
+     * @param index the location where to insert the value
+     * @param value the value to store
+     */
+    @Override
+    public void add(final int index, final E value) {
+        //the slot is taken first, as taking it can grow the values array
+        final int node = insert(index);
+        values[node] = value;
+    }
+
+    /**
+     * Inserts the value at the end of the tree
+     * Takes O(logN)
+     * @param value the value to store
+     */
+    @Override
+    public void add(final E value) {
+        add(size(), value);
+    }
+
+    /**
+     * Removes the value at the given index and puts its slot on the free list
+     * Takes O(logN)
+     * @param index the index of the value to remove
+     * @return the value which was removed
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(final int index) {
+        final int node = delete(index);
+        final E value = (E) values[node];
+        values[node] = null;
+        return value;
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values in order
+     * The tree is built bottom up by making the middle value of every range its root,
+     * filling exactly as many slots as there are values, which takes O(N)
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void load(final List<? extends E> values) {
+        final int count = values.size();
+        build(count);
+        for (int i = 0; i < count; i++) {
+            this.values[i + 1] = values.get(i);
+        }
+    }
+
+    /**
+     * Inserts all the values at the given index in their order
+     * An empty tree is built in O(K), otherwise the values are added one at a time
+     * @param index the location where to insert the values
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void insertAll(final int index, final List<? extends E> values) {
+        if (isEmpty()) {
+            load(values);
+        } else {
+            PositionalTree.super.insertAll(index, values);
+        }
+    }
+
+    /**
+     * Returns an iterator which walks the slots in index order
+     * Each step takes amortized O(1) and it fails fast if the tree is structurally changed
+     * @return Iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new SlotIterator();
+    }
+
+    /**
+     * Iterator stepping from each slot to its successor
+     */
+    private final class SlotIterator implements Iterator<E> {
+        private int next = first();
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next != NIL;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == NIL) {
+                throw new NoSuchElementException();
+            }
+            final int current = next;
+            next = successor(current);
+            return (E) values[current];
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.list.structure;
+
+import com.list.structure.interfaces.PositionalTree;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * AVL tree keeping the values in order by the sizes of the subtrees
+ * The heights of the two children of every node differ by at most one, so the tree is at most
+ * about 1.44 logN high against the 2 logN a red black tree may reach, and lookups by index
+ * go through fewer nodes. Inserts and deletes pay for it by rebalancing on every level
+ * they pass on the way back up, where a red black tree can often stop early
+ * Nodes have no parent pointers and are not handed out as handles
+ */
+public class AvlTree<E> implements PositionalTree<E> {
+    private AvlNode<E> root; //null when the tree is empty
+    private int modCount = 0; //number of structural changes, used by iterators to fail fast
+    private E removed; //value taken out by the last remove
+
+    /**
+     * Constructor to initialize the structure
+     */
+    public AvlTree() {
+    }
+
+    /**
+     * Node of the tree, which holds the size and the height of its subtree
+     */
+    private static final class AvlNode<E> {
+        private E value;
+        private AvlNode<E> left;
+        private AvlNode<E> right;
+        private int size = 1;
+        private int height = 1;
+
+        AvlNode(final E value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Returns the number of elements in the tree
+     * @return the size of the tree
+     */
+    @Override
+    public int size() {
+        return sizeOf(root);
+    }
+
+    /**
+     * Returns if the tree is empty
+     * @return true if the tree is empty
+     */
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Clears the tree
+     */
+    @Override
+    public void clear() {
+        root = null;
+        modCount++;
+    }
+
+    /**
+     * Returns the number of structural changes made to the tree
+     * @return the modification count
+     */
+    @Override
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Returns the number of nodes on the longest path from the root, which every node keeps for its subtree
+     * Takes O(1)
+     * @return the height of the tree
+     */
+    @Override
+    public int getHeight() {
+        return heightOf(root);
+    }
+
+    /**
+     * Returns the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    @Override
+    public E getValue(final int index) {
+        return get(root, index).value;
+    }
+
+    /**
+     * Sets the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     */
+    @Override
+    public E set(final int index, final E value) {
+        final AvlNode<E> node = get(root, index);
+        final E valReturn = node.value;
+        node.value = value;
+        return valReturn;
+    }
+
+    /**
+     * Inserts the value at the given index
+     * Takes O(logN)
+     * @param index the location where to insert the value
+     * @param value the value to store
+     */
+    @Override
+    public void add(final int index, final E value) {
+        root = insert(root, index, value);
+        modCount++;
+    }
+
+    /**
+     * Inserts the value at the end of the tree
+     * Takes O(logN)
+     * @param value the value to store
+     */
+    @Override
+    public void add(final E value) {
+        add(size(), value);
+    }
+
+    /**
+     * Removes the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value to remove
+     * @return the value which was removed
+     */
+    @Override
+    public E remove(final int index) {
+        root = delete(root, index);
+        modCount++;
+        final E value = removed;
+        removed = null;
+        return value;
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values in order
+     * The middle value of every range becomes its root, so the heights of any two siblings
+     * differ by at most one and the tree needs no rotations, which takes O(N)
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void load(final List<? extends E> values) {
+        root = build(values, 0, values.size());
+        modCount++;
+    }
+
+    /**
+     * Inserts all the values at the given index in their order
+     * An empty tree is built in O(K), otherwise the values are added one at a time
+     * @param index the location where to insert the values
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void insertAll(final int index, final List<? extends E> values) {
+        if (isEmpty()) {
+            load(values);
+        } else {
+            PositionalTree.super.insertAll(index, values);
+        }
+    }
+
+    /**
+     * Builds a balanced subtree from the values between from, inclusive, and to, exclusive
+     * @param values the values to store
+     * @param from the index of the first value
+     * @param to the index after the last value
+     * @return the root of the subtree or null if the range is empty
+     */
+    private AvlNode<E> build(final List<? extends E> values, final int from, final int to) {
+        if (from >= to) {
+            return null;
+        }
+        final int mid = (from + to) >>> 1;
+        final AvlNode<E> node = new AvlNode<>(values.get(mid));
+        node.left = build(values, from, mid);
+        node.right = build(values, mid + 1, to);
+        update(node);
+        return node;
+    }
+
+    /**
+     * Inserts the value into the subtree and rebalances every node on the way back up
+     * @param node the root of the subtree
+     * @param index the index within the subtree
+     * @param value the value to store
+     * @return the root of the new subtree
+     */
+    private AvlNode<E> insert(final AvlNode<E> node, final int index, final E value) {
+        if (node == null) {
+            return new AvlNode<>(value);
+        }
+        final int leftSize = sizeOf(node.left);
+        if (index <= leftSize) {
+            node.left = insert(node.left, index, value);
+        } else {
+            node.right = insert(node.right, index - leftSize - 1, value);
+        }
+        return balance(node);
+    }
+
+    /**
+     * Deletes the value at the index from the subtree, keeping it in removed,
+     * and rebalances every node on the way back up
+     * A node with two children takes the value of its successor, which is deleted instead
+     * @param node the root of the subtree
+     * @param index the index within the subtree
+     * @return the root of the new subtree or null if it is empty
+     */
+    private AvlNode<E> delete(final AvlNode<E> node, final int index) {
+        final int leftSize = sizeOf(node.left);
+        if (index < leftSize) {
+            node.left = delete(node.left, index);
+        } else if (index > leftSize) {
+            node.right = delete(node.right, index - leftSize - 1);
+        } else {
+            removed = node.value;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            node.value = get(node.right, 0).value;
+            node.right = deleteFirst(node.right);
+        }
+        return balance(node);
+    }
+
+    /**
+     * Deletes the first node of the subtree
+     * @param node the root of the subtree
+     * @return the root of the new subtree or null if it is empty
+     */
+    private AvlNode<E> deleteFirst(final AvlNode<E> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteFirst(node.left);
+        return balance(node);
+    }
+
+    /**
+     * Returns the node at the given index of the subtree
+     * @param node the root of the subtree
+     * @param index the index within the subtree
+     * @return the node at the index
+     */
+    private static <E> AvlNode<E> get(AvlNode<E> node, int index) {
+        while (index != sizeOf(node.left)) {
+            if (index < sizeOf(node.left)) {
+                node = node.left;
+            } else {
+                index -= sizeOf(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Updates the size and height of the node and rotates it if its children
+     * differ in height by two
+     * @param node the node whose children may have changed
+     * @return the root of the rebalanced subtree
+     */
+    private static <E> AvlNode<E> balance(final AvlNode<E> node) {
+        update(node);
+        final int difference = heightOf(node.left) - heightOf(node.right);
+        if (difference > 1) {
+            if (heightOf(node.left.left) < heightOf(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        } else if (difference < -1) {
+            if (heightOf(node.right.right) < heightOf(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Lifts the right child of the node above it
+     * @param node the node to rotate
+     * @return the new root of the subtree
+     */
+    private static <E> AvlNode<E> rotateLeft(final AvlNode<E> node) {
+        final AvlNode<E> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    /**
+     * Lifts the left child of the node above it
+     * @param node the node to rotate
+     * @return the new root of the subtree
+     */
+    private static <E> AvlNode<E> rotateRight(final AvlNode<E> node) {
+        final AvlNode<E> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    /**
+     * Recomputes the size and height of the node from its children
+     * @param node the node to update
+     */
+    private static <E> void update(final AvlNode<E> node) {
+        node.size = sizeOf(node.left) + sizeOf(node.right) + 1;
+        node.height = Math.max(heightOf(node.left), heightOf(node.right)) + 1;
+    }
+
+    private static int sizeOf(final AvlNode<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int heightOf(final AvlNode<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Returns an in order iterator which keeps the path to the next node on a stack
+     * Each step takes amortized O(1) and it fails fast if the tree is structurally changed
+     * @return Iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new PathIterator();
+    }
+
+    /**
+     * In order iterator which keeps the path to the next node on a stack, as nodes have no parents
+     * The path is never longer than the height of the tree when the iterator is created
+     */
+    private final class PathIterator implements Iterator<E> {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private final AvlNode<E>[] path = new AvlNode[heightOf(root)];
+        private int depth;
+        private final int expectedModCount = modCount;
+
+        PathIterator() {
+            pushLeftSpine(root);
+        }
+
+        private void pushLeftSpine(AvlNode<E> node) {
+            for (; node != null; node = node.left) {
+                path[depth++] = node;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth > 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final AvlNode<E> node = path[--depth];
+            path[depth] = null;
+            pushLeftSpine(node.right);
+            return node.value;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.list.structure;
+
+import com.list.structure.interfaces.PositionalTree;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Counted B+ tree whose leaves hold chunks of values in arrays
+ * The branches hold the number of values under each of their children,
+ * which is used to find an index the same way the red black tree uses its child counts
+ *
+ * A value costs one array slot instead of a whole node, and the leaves are linked
+ * so iterating walks along arrays instead of chasing parent pointers
+ * Get, set, insert and delete take O(logN) with a wide fan out, so the tree is only a few levels deep
+ */
+public class ChunkedTree<E> extends AbstractChunkedTree<Object[]> implements PositionalTree<E> {
+    private Object pending; //the value being inserted, or the value which was removed
+    private List<? extends E> loading; //the values being loaded
+
+    /**
+     * Constructor to initialize the structure
+     */
+    public ChunkedTree() {
+    }
+
+    @Override
+    Object[] newValues() {
+        return new Object[LEAF_CAPACITY];
+    }
+
+    @Override
+    void store(final Object[] values, final int offset) {
+        values[offset] = pending;
+    }
+
+    @Override
+    void capture(final Object[] values, final int offset) {
+        pending = values[offset];
+    }
+
+    @Override
+    void fill(final Object[] values, final int from, final int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = loading.get(from + i);
+        }
+    }
+
+    @Override
+    void clearValues(final Object[] values, final int from, final int to) {
+        Arrays.fill(values, from, to, null);
+    }
+
+    /**
+     * Returns the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E getValue(final int index) {
+        final Leaf<Object[]> leaf = locate(index);
+        return (E) leaf.values[offset];
+    }
+
+    /**
+     * Sets the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(final int index, final E value) {
+        final Leaf<Object[]> leaf = locate(index);
+        final E valReturn = (E) leaf.values[offset];
+        leaf.values[offset] = value;
+        return valReturn;
+    }
+
+    /**
+     * Inserts the value at the given index, splitting full chunks on the way back up
+     * Takes O(logN)
+     * @param index the location where to insert the value
+     * @param value the value to store
+     */
+    @Override
+    public void add(final int index, final E value) {
+        pending = value;
+        insertAt(index);
+        pending = null;
+    }
+
+    /**
+     * Inserts the value at the end of the tree
+     * Takes O(logN)
+     * @param value the value to store
+     */
+    @Override
+    public void add(final E value) {
+        add(size(), value);
+    }
+
+    /**
+     * Removes the value at the given index, merging chunks which get too small on the way back up
+     * Takes O(logN)
+     * @param index the index of the value to remove
+     * @return the value which was removed
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(final int index) {
+        removeAt(index);
+        final E value = (E) pending;
+        pending = null;
+        return value;
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values in order
+     * Fills the leaves and then the branches level by level, which takes O(N)
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void load(final List<? extends E> values) {
+        loading = values;
+        try {
+            build(values.size());
+        } finally {
+            loading = null;
+        }
+    }
+
+    /**
+     * Inserts all the values at the given index in their order
+     * An empty tree is built in O(K), otherwise the values are added one at a time
+     * @param index the location where to insert the values
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void insertAll(final int index, final List<? extends E> values) {
+        if (isEmpty()) {
+            load(values);
+        } else {
+            PositionalTree.super.insertAll(index, values);
+        }
+    }
+
+    /**
+     * Copies the values in order into the given array, a leaf at a time
+     * @param target the array to copy into, holding at least size() values
+     */
+    @Override
+    public void copyTo(final Object[] target) {
+        copyInto(target);
+    }
+
+    /**
+     * Returns an iterator which walks along the leaves
+     * Each step takes O(1) and it fails fast if the tree is structurally changed
+     * @return Iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new ChunkIterator();
+    }
+
+    /**
+     * Iterator over the values of the leaves from first to last
+     */
+    private final class ChunkIterator extends Cursor implements Iterator<E> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            final int position = advance();
+            return (E) leaf.values[position];
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.list.structure;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * Counted B+ tree holding double values unboxed in the arrays of its leaves
+ * Works like ChunkedTree, so get, set, insert and delete take O(logN),
+ * but a value costs eight bytes instead of a reference to a Double
+ */
+public class DoubleChunkedTree extends AbstractChunkedTree<double[]> {
+    private double pending; //the value being inserted, or the value which was removed
+    private double[] loading; //the values being loaded
+
+    /**
+     * Constructor to initialize the structure
+     */
+    public DoubleChunkedTree() {
+    }
+
+    @Override
+    double[] newValues() {
+        return new double[LEAF_CAPACITY];
+    }
+
+    @Override
+    void store(final double[] values, final int offset) {
+        values[offset] = pending;
+    }
+
+    @Override
+    void capture(final double[] values, final int offset) {
+        pending = values[offset];
+    }
+
+    @Override
+    void fill(final double[] values, final int from, final int count) {
+        System.arraycopy(loading, from, values, 0, count);
+    }
+
+    /**
+     * Returns the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    public double getDouble(final int index) {
+        final Leaf<double[]> leaf = locate(index);
+        return leaf.values[offset];
+    }
+
+    /**
+     * Sets the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     */
+    public double setDouble(final int index, final double value) {
+        final Leaf<double[]> leaf = locate(index);
+        final double valReturn = leaf.values[offset];
+        leaf.values[offset] = value;
+        return valReturn;
+    }
+
+    /**
+     * Inserts the value at the given index
+     * Takes O(logN)
+     * @param index the location where to insert the value
+     * @param value the value to store
+     */
+    public void addDouble(final int index, final double value) {
+        pending = value;
+        insertAt(index);
+    }
+
+    /**
+     * Removes the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value to remove
+     * @return the value which was removed
+     */
+    public double removeDouble(final int index) {
+        removeAt(index);
+        return pending;
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values in order, which takes O(N)
+     * @param values the values to store
+     */
+    public void load(final double[] values) {
+        loading = values;
+        try {
+            build(values.length);
+        } finally {
+            loading = null;
+        }
+    }
+
+    /**
+     * Finds the first occurrence of the value, scanning the leaves in order
+     * Values are compared like Double.equals does, so NaN is found and 0.0 differs from -0.0
+     * @param value the value to search for
+     * @return the index of the value or -1
+     */
+    public int indexOf(final double value) {
+        final long bits = Double.doubleToLongBits(value);
+        int start = 0;
+        for (Leaf<double[]> leaf = firstLeaf(); start < size(); leaf = leaf.next) {
+            for (int i = 0; i < leaf.size; i++) {
+                if (Double.doubleToLongBits(leaf.values[i]) == bits) {
+                    return start + i;
+                }
+            }
+            start += leaf.size;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the values in order as an array
+     * @return array of values
+     */
+    public double[] toArray() {
+        final double[] values = new double[size()];
+        copyInto(values);
+        return values;
+    }
+
+    /**
+     * Returns an iterator which walks along the leaves without boxing
+     * Each step takes O(1) and it fails fast if the tree is structurally changed
+     * @return PrimitiveIterator.OfDouble
+     */
+    public PrimitiveIterator.OfDouble iterator() {
+        return new DoubleIterator();
+    }
+
+    /**
+     * Iterator over the values of the leaves from first to last
+     */
+    private final class DoubleIterator extends Cursor implements PrimitiveIterator.OfDouble {
+
+        @Override
+        public double nextDouble() {
+            final int position = advance();
+            return leaf.values[position];
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.list.structure;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * Counted B+ tree holding int values unboxed in the arrays of its leaves
+ * Works like ChunkedTree, so get, set, insert and delete take O(logN),
+ * but a value costs four bytes instead of a reference to an Integer
+ */
+public class IntChunkedTree extends AbstractChunkedTree<int[]> {
+    private int pending; //the value being inserted, or the value which was removed
+    private int[] loading; //the values being loaded
+
+    /**
+     * Constructor to initialize the structure
+     */
+    public IntChunkedTree() {
+    }
+
+    @Override
+    int[] newValues() {
+        return new int[LEAF_CAPACITY];
+    }
+
+    @Override
+    void store(final int[] values, final int offset) {
+        values[offset] = pending;
+    }
+
+    @Override
+    void capture(final int[] values, final int offset) {
+        pending = values[offset];
+    }
+
+    @Override
+    void fill(final int[] values, final int from, final int count) {
+        System.arraycopy(loading, from, values, 0, count);
+    }
+
+    /**
+     * Returns the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    public int getInt(final int index) {
+        final Leaf<int[]> leaf = locate(index);
+        return leaf.values[offset];
+    }
+
+    /**
+     * Sets the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     */
+    public int setInt(final int index, final int value) {
+        final Leaf<int[]> leaf = locate(index);
+        final int valReturn = leaf.values[offset];
+        leaf.values[offset] = value;
+        return valReturn;
+    }
+
+    /**
+     * Inserts the value at the given index
+     * Takes O(logN)
+     * @param index the location where to insert the value
+     * @param value the value to store
+     */
+    public void addInt(final int index, final int value) {
+        pending = value;
+        insertAt(index);
+    }
+
+    /**
+     * Removes the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value to remove
+     * @return the value which was removed
+     */
+    public int removeInt(final int index) {
+        removeAt(index);
+        return pending;
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values in order, which takes O(N)
+     * @param values the values to store
+     */
+    public void load(final int[] values) {
+        loading = values;
+        try {
+            build(values.length);
+        } finally {
+            loading = null;
+        }
+    }
+
+    /**
+     * Finds the first occurrence of the value, scanning the leaves in order
+     * @param value the value to search for
+     * @return the index of the value or -1
+     */
+    public int indexOf(final int value) {
+        int start = 0;
+        for (Leaf<int[]> leaf = firstLeaf(); start < size(); leaf = leaf.next) {
+            for (int i = 0; i < leaf.size; i++) {
+                if (leaf.values[i] == value) {
+                    return start + i;
+                }
+            }
+            start += leaf.size;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the values in order as an array
+     * @return array of values
+     */
+    public int[] toArray() {
+        final int[] values = new int[size()];
+        copyInto(values);
+        return values;
+    }
+
+    /**
+     * Returns an iterator which walks along the leaves without boxing
+     * Each step takes O(1) and it fails fast if the tree is structurally changed
+     * @return PrimitiveIterator.OfInt
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new IntIterator();
+    }
+
+    /**
+     * Iterator over the values of the leaves from first to last
+     */
+    private final class IntIterator extends Cursor implements PrimitiveIterator.OfInt {
+
+        @Override
+        public int nextInt() {
+            final int position = advance();
+            return leaf.values[position];
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.list.structure;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * Counted B+ tree holding long values unboxed in the arrays of its leaves
+ * Works like ChunkedTree, so get, set, insert and delete take O(logN),
+ * but a value costs eight bytes instead of a reference to a Long
+ */
+public class LongChunkedTree extends AbstractChunkedTree<long[]> {
+    private long pending; //the value being inserted, or the value which was removed
+    private long[] loading; //the values being loaded
+
+    /**
+     * Constructor to initialize the structure
+     */
+    public LongChunkedTree() {
+    }
+
+    @Override
+    long[] newValues() {
+        return new long[LEAF_CAPACITY];
+    }
+
+    @Override
+    void store(final long[] values, final int offset) {
+        values[offset] = pending;
+    }
+
+    @Override
+    void capture(final long[] values, final int offset) {
+        pending = values[offset];
+    }
+
+    @Override
+    void fill(final long[] values, final int from, final int count) {
+        System.arraycopy(loading, from, values, 0, count);
+    }
+
+    /**
+     * Returns the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    public long getLong(final int index) {
+        final Leaf<long[]> leaf = locate(index);
+        return leaf.values[offset];
+    }
+
+    /**
+     * Sets the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     */
+    public long setLong(final int index, final long value) {
+        final Leaf<long[]> leaf = locate(index);
+        final long valReturn = leaf.values[offset];
+        leaf.values[offset] = value;
+        return valReturn;
+    }
+
+    /**
+     * Inserts the value at the given index
+     * Takes O(logN)
+     * @param index the location where to insert the value
+     * @param value the value to store
+     */
+    public void addLong(final int index, final long value) {
+        pending = value;
+        insertAt(index);
+    }
+
+    /**
+     * Removes the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value to remove
+     * @return the value which was removed
+     */
+    public long removeLong(final int index) {
+        removeAt(index);
+        return pending;
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values in order, which takes O(N)
+     * @param values the values to store
+     */
+    public void load(final long[] values) {
+        loading = values;
+        try {
+            build(values.length);
+        } finally {
+            loading = null;
+        }
+    }
+
+    /**
+     * Finds the first occurrence of the value, scanning the leaves in order
+     * @param value the value to search for
+     * @return the index of the value or -1
+     */
+    public int indexOf(final long value) {
+        int start = 0;
+        for (Leaf<long[]> leaf = firstLeaf(); start < size(); leaf = leaf.next) {
+            for (int i = 0; i < leaf.size; i++) {
+                if (leaf.values[i] == value) {
+                    return start + i;
+                }
+            }
+            start += leaf.size;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the values in order as an array
+     * @return array of values
+     */
+    public long[] toArray() {
+        final long[] values = new long[size()];
+        copyInto(values);
+        return values;
+    }
+
+    /**
+     * Returns an iterator which walks along the leaves without boxing
+     * Each step takes O(1) and it fails fast if the tree is structurally changed
+     * @return PrimitiveIterator.OfLong
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new LongIterator();
+    }
+
+    /**
+     * Iterator over the values of the leaves from first to last
+     */
+    private final class LongIterator extends Cursor implements PrimitiveIterator.OfLong {
+
+        @Override
+        public long nextLong() {
+            final int position = advance();
+            return leaf.values[position];
+        }
+    }
+}
@@ -0,0 +1,629 @@
+package com.list.structure;
+
+import com.list.structure.interfaces.PositionalTree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * List of long values persisted in a memory mapped file, which opens without reading the values
+ *
+ * The file holds a header and then the values in index order, which is the implicit layout of a perfectly
+ * balanced tree: the root of any range of indexes is its middle value and no links or sizes need storing,
+ * so the value at an index is found straight from its position in the file
+ * Opening maps the file and get only touches the pages it reads, so there is no parse step
+ *
+ * Changes go to an overlay kept in memory, a table of pieces which each stand for a run of values
+ * either from the file or from a buffer of values added since the file was written
+ * Finding the piece of an index takes O(logP) and changes take O(P) for P pieces, so compact
+ * writes the list back to the file in order and starts over with a single piece
+ * It runs on close if anything changed, and by itself once the overlay gets too fragmented
+ * The buffer of added values is packed down to the values still in use whenever it fills up
+ * with values which were removed, so churn keeps it in proportion to the values it holds
+ */
+public class MappedLongTree implements PositionalTree<Long>, Closeable {
+    private static final int MAGIC = 0x544c5354; //"TLST"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16; //magic, version and the number of values as a long
+    private static final int REGION_SHIFT = 27; //values per mapped region as a power of two, 1GB each
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+    private static final int MAX_PIECES = 4096;
+    private static final boolean FILE = false;
+    private static final boolean ADDED = true;
+
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer[] regions;
+    private long[] added = new long[16]; //values added since the file was written
+    private int addedCount;
+    private boolean[] sources = new boolean[16]; //where the values of each piece are, FILE or ADDED
+    private int[] starts = new int[16]; //index of the first value of each piece in its source
+    private int[] ends = new int[16]; //index after the last value of each piece in the list
+    private int pieceCount;
+    private boolean changed;
+    private boolean closed;
+    private int modCount = 0; //number of structural changes, used by iterators to fail fast
+
+    /**
+     * Constructor to map the given file
+     * @param path the file
+     * @throws IOException if the file can not be read or is not a list file
+     */
+    private MappedLongTree(final Path path) throws IOException {
+        this.path = path;
+        map();
+    }
+
+    /**
+     * Opens the list stored in the given file, creating an empty one if the file does not exist
+     * Takes O(1) however many values the file holds
+     * @param path the file
+     * @return the list
+     * @throws IOException if the file can not be read or is not a list file
+     */
+    public static MappedLongTree open(final Path path) throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            write(path, 0, null);
+        }
+        return new MappedLongTree(path);
+    }
+
+    /**
+     * Maps the file and resets the overlay to a single piece standing for all of it
+     * @throws IOException if the file can not be read or is not a list file
+     */
+    private void map() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            //keep reading until the header is complete
+        }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            channel.close();
+            throw new IOException(path + " is not a tree list file");
+        }
+        final long count = header.getLong();
+        if (count < 0 || count > Integer.MAX_VALUE || channel.size() < HEADER_BYTES + count * Long.BYTES) {
+            channel.close();
+            throw new IOException(path + " is truncated or corrupt");
+        }
+        regions = new MappedByteBuffer[(int) ((count + REGION_MASK) >>> REGION_SHIFT)];
+        for (int i = 0; i < regions.length; i++) {
+            final long first = (long) i << REGION_SHIFT;
+            final long values = Math.min(count - first, 1L << REGION_SHIFT);
+            regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * Long.BYTES, values * Long.BYTES);
+        }
+        addedCount = 0;
+        pieceCount = 0;
+        if (count > 0) {
+            sources[0] = FILE;
+            starts[0] = 0;
+            ends[0] = (int) count;
+            pieceCount = 1;
+        }
+        changed = false;
+    }
+
+    /**
+     * Unmaps the file and closes the channel
+     * @throws IOException if the channel can not be closed
+     */
+    private void unmap() throws IOException {
+        for (int i = 0; i < regions.length; i++) {
+            DirectBuffers.free(regions[i]);
+            regions[i] = null;
+        }
+        channel.close();
+    }
+
+    /**
+     * Writes the values of the list to the file, in order after the header
+     * @param path the file
+     * @param count the number of values
+     * @param list the list to take the values from, or null when there are none
+     * @throws IOException if the file can not be written
+     */
+    private static void write(final Path path, final int count, final MappedLongTree list) throws IOException {
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(count);
+            if (list != null) {
+                final PrimitiveIterator.OfLong values = list.iterator();
+                while (values.hasNext()) {
+                    if (!buffer.hasRemaining()) {
+                        drain(out, buffer);
+                    }
+                    buffer.putLong(values.nextLong());
+                }
+            }
+            drain(out, buffer);
+            out.force(true);
+        }
+    }
+
+    /**
+     * Writes out what the buffer holds and empties it
+     * @param out the channel to write to
+     * @param buffer the buffer
+     * @throws IOException if the channel can not be written
+     */
+    private static void drain(final FileChannel out, final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the list back to its file in order and maps it again, emptying the overlay
+     * The values go to a new file first which then replaces the old one, so a crash leaves either of them whole
+     * Takes O(N)
+     * @throws IOException if the file can not be written
+     * @throws IllegalStateException if the list is closed
+     */
+    public void compact() throws IOException, IllegalStateException {
+        checkOpen();
+        if (!changed) {
+            return;
+        }
+        final Path temp = path.resolveSibling(path.getFileName() + ".compact");
+        write(temp, size(), this);
+        unmap();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        map();
+    }
+
+    /**
+     * Compacts the list once the overlay holds too many pieces for changes to stay cheap
+     */
+    private void compactIfFragmented() {
+        if (pieceCount > MAX_PIECES) {
+            try {
+                compact();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Compacts the list if it changed, then unmaps the file
+     * Calling it again does nothing
+     * @throws IOException if the file can not be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            compact();
+            unmap();
+            closed = true;
+        }
+    }
+
+    /**
+     * Checks that the list has not been closed
+     * @throws IllegalStateException if the list is closed
+     */
+    private void checkOpen() throws IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("tree is closed");
+        }
+    }
+
+    /**
+     * Returns the number of elements in the list
+     * @return the size of the list
+     */
+    @Override
+    public int size() {
+        return pieceCount == 0 ? 0 : ends[pieceCount - 1];
+    }
+
+    /**
+     * Returns if the list is empty
+     * @return true if the list is empty
+     */
+    @Override
+    public boolean isEmpty() {
+        return pieceCount == 0;
+    }
+
+    /**
+     * Clears the list, which reaches the file on the next compact
+     */
+    @Override
+    public void clear() {
+        checkOpen();
+        pieceCount = 0;
+        addedCount = 0;
+        changed = true;
+        modCount++;
+    }
+
+    /**
+     * Returns the number of structural changes made to the list
+     * @return the modification count
+     */
+    @Override
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Returns the value at the given index without boxing
+     * Takes O(logP) for P pieces in the overlay
+     * @param index the index of the value
+     * @return the value at the index
+     * @throws IllegalStateException if the list is closed
+     */
+    public long getLong(final int index) throws IllegalStateException {
+        checkOpen();
+        final int piece = find(index);
+        return read(piece, starts[piece] + index - pieceStart(piece));
+    }
+
+    /**
+     * Sets the value at the given index without boxing
+     * A value from the file is replaced by a piece holding the new value
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     * @throws IllegalStateException if the list is closed
+     */
+    public long setLong(final int index, final long value) throws IllegalStateException {
+        checkOpen();
+        int piece = find(index);
+        final int offset = index - pieceStart(piece);
+        final long valReturn = read(piece, starts[piece] + offset);
+        if (sources[piece] == ADDED) {
+            added[starts[piece] + offset] = value;
+        } else {
+            if (offset > 0) {
+                split(piece++, offset);
+            }
+            if (pieceLength(piece) > 1) {
+                split(piece, 1);
+            }
+            sources[piece] = ADDED;
+            starts[piece] = append(value);
+        }
+        changed = true;
+        compactIfFragmented();
+        return valReturn;
+    }
+
+    /**
+     * Inserts the value at the given index without boxing
+     * A run of values added one after another grows a single piece
+     * @param index the location where to insert the value
+     * @param value the value to store
+     * @throws IllegalStateException if the list is closed
+     */
+    public void addLong(final int index, final long value) throws IllegalStateException {
+        checkOpen();
+        final int position = append(value);
+        final int before = index == 0 ? -1 : find(index - 1);
+        if (before >= 0 && sources[before] == ADDED && ends[before] == index
+                && starts[before] + pieceLength(before) == position) {
+            //the value follows on from the piece before it, in the list and in the buffer
+            shiftEnds(before, 1);
+        } else {
+            int piece = before + 1;
+            if (before >= 0 && ends[before] > index) {
+                split(before, index - pieceStart(before));
+            }
+            insertPiece(piece, ADDED, position, 1);
+        }
+        changed = true;
+        modCount++;
+        compactIfFragmented();
+    }
+
+    /**
+     * Removes the value at the given index without boxing
+     * @param index the index of the value to remove
+     * @return the value which was removed
+     * @throws IllegalStateException if the list is closed
+     */
+    public long removeLong(final int index) throws IllegalStateException {
+        checkOpen();
+        final int piece = find(index);
+        final int offset = index - pieceStart(piece);
+        final int length = pieceLength(piece);
+        final long value = read(piece, starts[piece] + offset);
+        if (length == 1) {
+            removePiece(piece);
+        } else if (offset == 0) {
+            starts[piece]++;
+            shiftEnds(piece, -1);
+        } else if (offset == length - 1) {
+            shiftEnds(piece, -1);
+        } else {
+            split(piece, offset);
+            starts[piece + 1]++;
+            shiftEnds(piece + 1, -1);
+        }
+        changed = true;
+        modCount++;
+        compactIfFragmented();
+        return value;
+    }
+
+    /**
+     * Returns the value at the given index, boxed
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    @Override
+    public Long getValue(final int index) {
+        return getLong(index);
+    }
+
+    /**
+     * Sets the value at the given index
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     */
+    @Override
+    public Long set(final int index, final Long value) {
+        return setLong(index, value);
+    }
+
+    /**
+     * Inserts the value at the given index
+     * @param index the location where to insert the value
+     * @param value the value to store
+     */
+    @Override
+    public void add(final int index, final Long value) {
+        addLong(index, value);
+    }
+
+    /**
+     * Inserts the value at the end of the list
+     * @param value the value to store
+     */
+    @Override
+    public void add(final Long value) {
+        addLong(size(), value);
+    }
+
+    /**
+     * Removes the value at the given index
+     * @param index the index of the value to remove
+     * @return the value which was removed, boxed
+     */
+    @Override
+    public Long remove(final int index) {
+        return removeLong(index);
+    }
+
+    /**
+     * Reads a value from the source of the piece
+     * @param piece the piece
+     * @param position the index of the value in the source
+     * @return the value
+     */
+    private long read(final int piece, final int position) {
+        if (sources[piece] == ADDED) {
+            return added[position];
+        }
+        return regions[position >>> REGION_SHIFT].getLong((position & REGION_MASK) * Long.BYTES);
+    }
+
+    /**
+     * Puts the value at the end of the buffer of added values
+     * When the buffer is full it is packed down to the values the pieces still use if at most half
+     * of it is, and doubled otherwise, so values which were removed or set over do not pile up
+     * @param value the value
+     * @return the index of the value in the buffer
+     */
+    private int append(final long value) {
+        if (addedCount == added.length) {
+            if (liveAdded() <= addedCount / 2) {
+                reclaim();
+            } else {
+                added = Arrays.copyOf(added, addedCount * 2);
+            }
+        }
+        added[addedCount] = value;
+        return addedCount++;
+    }
+
+    /**
+     * Counts the added values which pieces still stand for
+     * Takes O(P)
+     * @return the number of live added values
+     */
+    private int liveAdded() {
+        int live = 0;
+        for (int piece = 0; piece < pieceCount; piece++) {
+            if (sources[piece] == ADDED) {
+                live += pieceLength(piece);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Copies the live added values into a new buffer in the order of their pieces,
+     * with room for as many again, and points the pieces at their new places
+     * Takes O(P) plus the number of live values
+     */
+    private void reclaim() {
+        final long[] packed = new long[Math.max(16, liveAdded() * 2)];
+        int count = 0;
+        for (int piece = 0; piece < pieceCount; piece++) {
+            if (sources[piece] == ADDED) {
+                final int length = pieceLength(piece);
+                System.arraycopy(added, starts[piece], packed, count, length);
+                starts[piece] = count;
+                count += length;
+            }
+        }
+        added = packed;
+        addedCount = count;
+    }
+
+    /**
+     * Returns the length of the buffer of added values
+     * @return the capacity of the buffer
+     */
+    int addedCapacity() {
+        return added.length;
+    }
+
+    /**
+     * Finds the piece holding the given index by binary search over the ends of the pieces
+     * @param index the index
+     * @return the piece
+     */
+    private int find(final int index) {
+        int low = 0;
+        int high = pieceCount - 1;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (ends[mid] > index) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index in the list of the first value of the piece
+     * @param piece the piece
+     * @return the index
+     */
+    private int pieceStart(final int piece) {
+        return piece == 0 ? 0 : ends[piece - 1];
+    }
+
+    /**
+     * Returns the number of values in the piece
+     * @param piece the piece
+     * @return the length
+     */
+    private int pieceLength(final int piece) {
+        return ends[piece] - pieceStart(piece);
+    }
+
+    /**
+     * Splits the piece in two at the given offset, leaving the list as it is
+     * @param piece the piece
+     * @param offset the number of values which stay in the first half, between 1 and the length minus 1
+     */
+    private void split(final int piece, final int offset) {
+        final int start = pieceStart(piece);
+        insertPiece(piece + 1, sources[piece], starts[piece] + offset, 0);
+        ends[piece + 1] = ends[piece];
+        ends[piece] = start + offset;
+    }
+
+    /**
+     * Inserts a piece at the given position, moving the ends of the pieces after it along
+     * @param piece the position of the new piece
+     * @param source where its values are
+     * @param start the index of its first value in the source
+     * @param length the number of values
+     */
+    private void insertPiece(final int piece, final boolean source, final int start, final int length) {
+        if (pieceCount == ends.length) {
+            sources = Arrays.copyOf(sources, pieceCount * 2);
+            starts = Arrays.copyOf(starts, pieceCount * 2);
+            ends = Arrays.copyOf(ends, pieceCount * 2);
+        }
+        System.arraycopy(sources, piece, sources, piece + 1, pieceCount - piece);
+        System.arraycopy(starts, piece, starts, piece + 1, pieceCount - piece);
+        System.arraycopy(ends, piece, ends, piece + 1, pieceCount - piece);
+        pieceCount++;
+        sources[piece] = source;
+        starts[piece] = start;
+        ends[piece] = pieceStart(piece);
+        shiftEnds(piece, length);
+    }
+
+    /**
+     * Removes the piece, moving the ends of the pieces after it back
+     * @param piece the piece
+     */
+    private void removePiece(final int piece) {
+        final int length = pieceLength(piece);
+        System.arraycopy(sources, piece + 1, sources, piece, pieceCount - piece - 1);
+        System.arraycopy(starts, piece + 1, starts, piece, pieceCount - piece - 1);
+        System.arraycopy(ends, piece + 1, ends, piece, pieceCount - piece - 1);
+        pieceCount--;
+        shiftEnds(piece, -length);
+    }
+
+    /**
+     * Adds to the ends of the piece and all the pieces after it
+     * @param piece the first piece to move
+     * @param delta the number of values the piece gained, negative if it lost some
+     */
+    private void shiftEnds(final int piece, final int delta) {
+        for (int i = piece; i < pieceCount; i++) {
+            ends[i] += delta;
+        }
+    }
+
+    /**
+     * Returns an iterator which walks the pieces in order without boxing
+     * It fails fast if the list is structurally changed, but carries on over sets and compactions
+     * as they leave every value at its index
+     * @return PrimitiveIterator.OfLong
+     */
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        checkOpen();
+        return new PieceIterator();
+    }
+
+    /**
+     * Iterator over the values of each piece in turn
+     */
+    private final class PieceIterator implements PrimitiveIterator.OfLong {
+        private int piece;
+        private int index;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return index < size();
+        }
+
+        @Override
+        public long nextLong() {
+            checkOpen();
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (index >= size()) {
+                throw new NoSuchElementException();
+            }
+            if (piece >= pieceCount || index < pieceStart(piece) || index >= ends[piece]) {
+                //moved on to the next piece, or sets and compactions renumbered the pieces
+                piece = find(index);
+            }
+            return read(piece, starts[piece] + index++ - pieceStart(piece));
+        }
+    }
+}
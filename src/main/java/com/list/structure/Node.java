@@ -2,6 +2,8 @@ package com.list.structure;
 
 /**
  * Class to handle elements of the tree
+ * The color and the size of the subtree rooted at the node are packed into one int,
+ * the number of left children is read off the left child
  * Created by Dhanish on 12 Feb,17.
  */
 public class Node<E> {
@@ -9,20 +11,20 @@ public class Node<E> {
     public enum Color{
         RED,BLACK
     }
+    private static final int BLACK_BIT = 1;
+
     private E value;
     private Node<E> left;
     private Node<E> right;
     private Node<E> parent;
-    private Color color;
-    private int leftChildren;
-    private int rightChildren;
+    private int sizeAndColor; //size of the subtree shifted left by one, the lowest bit is set when black
 
     Node(){
-        setColor(Color.BLACK);
+        sizeAndColor = BLACK_BIT;
     }
     Node(final E value){
         setValue(value);
-        setColor(Color.RED);
+        sizeAndColor = 1 << 1;
     }
 
     Node<E> getLeft(){ return left;}
@@ -48,11 +50,11 @@ public class Node<E> {
     }
 
     public Color getColor() {
-        return color;
+        return (sizeAndColor & BLACK_BIT) == 0 ? Color.RED : Color.BLACK;
     }
 
     void setColor(Color color) {
-        this.color = color;
+        sizeAndColor = color == Color.BLACK ? sizeAndColor | BLACK_BIT : sizeAndColor & ~BLACK_BIT;
     }
 
     public E getValue() {
@@ -63,20 +65,30 @@ public class Node<E> {
         this.value = value;
     }
 
-    public int getRightChildren() {
-        return rightChildren;
+    /**
+     * Returns the number of nodes in the subtree rooted at this node, 0 for nil
+     * @return the size of the subtree
+     */
+    int getSize() {
+        return sizeAndColor >>> 1;
     }
 
-    void setRightChildren(int rightChildren) {
-        this.rightChildren = rightChildren;
+    /**
+     * Sets the number of nodes in the subtree
+     * The size takes the upper 31 bits, so a size of 2^30 or more sets the sign bit,
+     * which getSize shifts back out unsigned, and every size up to Integer.MAX_VALUE is kept whole
+     * @param size the size of the subtree
+     */
+    void setSize(int size) {
+        sizeAndColor = size << 1 | (sizeAndColor & BLACK_BIT);
     }
 
-    int getLeftChildren() {
-        return leftChildren;
+    public int getRightChildren() {
+        return right.getSize();
     }
 
-    void setLeftChildren(int leftChildren) {
-        this.leftChildren = leftChildren;
+    int getLeftChildren() {
+        return left.getSize();
     }
 
 }
@@ -0,0 +1,403 @@
+package com.list.structure;
+
+import com.list.structure.interfaces.PositionalTree;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Red black tree of long values kept outside the heap, in pages of direct memory
+ * A node is a slot number like in ArrayRedBlackTree, and each slot is a fixed width record of
+ * its left, right and parent slots, its subtree size with the colour in the lowest bit, and its value
+ * The heap only holds the array of pages, so the garbage collector has next to nothing to mark
+ * however many values the tree holds, and the tree can grow as far as -XX:MaxDirectMemorySize allows
+ *
+ * Pages are added as the tree grows and never copied, and close gives the memory back
+ * straight away instead of waiting for the collector to notice the pages are unreachable
+ * The tree can not be used once it is closed
+ */
+public class OffHeapLongTree extends AbstractSlotRedBlackTree implements PositionalTree<Long>, AutoCloseable {
+    private static final int NODE_BYTES = 24;
+    private static final int LEFT = 0;
+    private static final int RIGHT = 4;
+    private static final int PARENT = 8;
+    private static final int SIZE_AND_COLOR = 12;
+    private static final int VALUE = 16;
+    private static final int RED_BIT = 1; //set for red so that zeroed memory reads as a black node of size 0
+    private static final int PAGE_SHIFT = 16; //slots per page as a power of two
+    private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+
+    private ByteBuffer[] pages = new ByteBuffer[0];
+    private int pageCount;
+    private boolean closed;
+
+    /**
+     * Constructor to initialize the structure
+     */
+    public OffHeapLongTree() {
+        reset(1);
+    }
+
+    @Override
+    int left(final int node) {
+        return pages[node >>> PAGE_SHIFT].getInt(offset(node) + LEFT);
+    }
+
+    @Override
+    void setLeft(final int node, final int left) {
+        pages[node >>> PAGE_SHIFT].putInt(offset(node) + LEFT, left);
+    }
+
+    @Override
+    int right(final int node) {
+        return pages[node >>> PAGE_SHIFT].getInt(offset(node) + RIGHT);
+    }
+
+    @Override
+    void setRight(final int node, final int right) {
+        pages[node >>> PAGE_SHIFT].putInt(offset(node) + RIGHT, right);
+    }
+
+    @Override
+    int parent(final int node) {
+        return pages[node >>> PAGE_SHIFT].getInt(offset(node) + PARENT);
+    }
+
+    @Override
+    void setParent(final int node, final int parent) {
+        pages[node >>> PAGE_SHIFT].putInt(offset(node) + PARENT, parent);
+    }
+
+    @Override
+    int count(final int node) {
+        return pages[node >>> PAGE_SHIFT].getInt(offset(node) + SIZE_AND_COLOR) >>> 1;
+    }
+
+    /**
+     * Stores the count in the upper 31 bits of the size and color word, which count reads back
+     * with an unsigned shift, so counts of 2^30 and more are kept whole through the sign bit
+     */
+    @Override
+    void setCount(final int node, final int count) {
+        final ByteBuffer page = pages[node >>> PAGE_SHIFT];
+        final int at = offset(node) + SIZE_AND_COLOR;
+        page.putInt(at, count << 1 | (page.getInt(at) & RED_BIT));
+    }
+
+    @Override
+    boolean isRed(final int node) {
+        return (pages[node >>> PAGE_SHIFT].getInt(offset(node) + SIZE_AND_COLOR) & RED_BIT) != 0;
+    }
+
+    @Override
+    void setRed(final int node, final boolean isRed) {
+        final ByteBuffer page = pages[node >>> PAGE_SHIFT];
+        final int at = offset(node) + SIZE_AND_COLOR;
+        page.putInt(at, isRed ? page.getInt(at) | RED_BIT : page.getInt(at) & ~RED_BIT);
+    }
+
+    /**
+     * Returns the offset of the record of the slot within its page
+     * @param node the slot
+     * @return the offset in bytes
+     */
+    private static int offset(final int node) {
+        return (node & PAGE_MASK) * NODE_BYTES;
+    }
+
+    @Override
+    int capacity() {
+        return pageCount << PAGE_SHIFT;
+    }
+
+    /**
+     * Adds a page, leaving the others where they are
+     */
+    @Override
+    void grow() {
+        if (pageCount == pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(4, pageCount * 2));
+        }
+        pages[pageCount++] = ByteBuffer.allocateDirect(NODE_BYTES << PAGE_SHIFT).order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    void resetSlots(final int capacity) {
+        release();
+        while (capacity() < capacity) {
+            grow();
+        }
+    }
+
+    /**
+     * Frees every page
+     */
+    private void release() {
+        for (int i = 0; i < pageCount; i++) {
+            DirectBuffers.free(pages[i]);
+            pages[i] = null;
+        }
+        pageCount = 0;
+    }
+
+    /**
+     * Returns the value of the slot
+     * @param node the slot
+     * @return the value
+     */
+    private long value(final int node) {
+        return pages[node >>> PAGE_SHIFT].getLong(offset(node) + VALUE);
+    }
+
+    /**
+     * Stores the value of the slot
+     * @param node the slot
+     * @param value the value
+     */
+    private void setValue(final int node, final long value) {
+        pages[node >>> PAGE_SHIFT].putLong(offset(node) + VALUE, value);
+    }
+
+    /**
+     * Returns the number of elements in the tree
+     * @return the size of the tree
+     * @throws IllegalStateException if the tree is closed
+     */
+    @Override
+    public int size() throws IllegalStateException {
+        checkOpen();
+        return super.size();
+    }
+
+    /**
+     * Returns if the tree is empty
+     * @return true if the tree is empty
+     * @throws IllegalStateException if the tree is closed
+     */
+    @Override
+    public boolean isEmpty() throws IllegalStateException {
+        checkOpen();
+        return super.isEmpty();
+    }
+
+    /**
+     * Clears the tree, freeing all but one page
+     * @throws IllegalStateException if the tree is closed
+     */
+    @Override
+    public void clear() throws IllegalStateException {
+        checkOpen();
+        reset(1);
+        modCount++;
+    }
+
+    /**
+     * Returns the value at the given index without boxing
+     * Takes O(logN)
+     * @param index the index of the value
+     * @return the value at the index
+     * @throws IllegalStateException if the tree is closed
+     */
+    public long getLong(final int index) throws IllegalStateException {
+        checkOpen();
+        return value(get(index));
+    }
+
+    /**
+     * Sets the value at the given index without boxing
+     * Takes O(logN)
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     * @throws IllegalStateException if the tree is closed
+     */
+    public long setLong(final int index, final long value) throws IllegalStateException {
+        checkOpen();
+        final int node = get(index);
+        final long valReturn = value(node);
+        setValue(node, value);
+        return valReturn;
+    }
+
+    /**
+     * Inserts the value at the given index without boxing
+     * Takes O(logN)
+     * @param index the location where to insert the value
+     * @param value the value to store
+     * @throws IllegalStateException if the tree is closed
+     */
+    public void addLong(final int index, final long value) throws IllegalStateException {
+        checkOpen();
+        setValue(insert(index), value);
+    }
+
+    /**
+     * Removes the value at the given index without boxing
+     * Takes O(logN)
+     * @param index the index of the value to remove
+     * @return the value which was removed
+     * @throws IllegalStateException if the tree is closed
+     */
+    public long removeLong(final int index) throws IllegalStateException {
+        checkOpen();
+        return value(delete(index));
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values in order, which takes O(N)
+     * @param values the values to store
+     * @throws IllegalStateException if the tree is closed
+     */
+    public void load(final long[] values) throws IllegalStateException {
+        checkOpen();
+        build(values.length);
+        for (int i = 0; i < values.length; i++) {
+            setValue(i + 1, values[i]);
+        }
+    }
+
+    /**
+     * Returns the value at the given index, boxed
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    @Override
+    public Long getValue(final int index) {
+        return getLong(index);
+    }
+
+    /**
+     * Sets the value at the given index
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     */
+    @Override
+    public Long set(final int index, final Long value) {
+        return setLong(index, value);
+    }
+
+    /**
+     * Inserts the value at the given index
+     * @param index the location where to insert the value
+     * @param value the value to store
+     */
+    @Override
+    public void add(final int index, final Long value) {
+        addLong(index, value);
+    }
+
+    /**
+     * Inserts the value at the end of the tree
+     * @param value the value to store
+     */
+    @Override
+    public void add(final Long value) {
+        addLong(size(), value);
+    }
+
+    /**
+     * Removes the value at the given index
+     * @param index the index of the value to remove
+     * @return the value which was removed, boxed
+     */
+    @Override
+    public Long remove(final int index) {
+        return removeLong(index);
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values in order, which takes O(N)
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void load(final List<? extends Long> values) {
+        checkOpen();
+        build(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            setValue(i + 1, values.get(i));
+        }
+    }
+
+    /**
+     * Inserts all the values at the given index in their order
+     * An empty tree is built in O(K), otherwise the values are added one at a time
+     * @param index the location where to insert the values
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void insertAll(final int index, final List<? extends Long> values) {
+        if (isEmpty()) {
+            load(values);
+        } else {
+            PositionalTree.super.insertAll(index, values);
+        }
+    }
+
+    /**
+     * Frees the memory of the tree
+     * Calling it again does nothing
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            release();
+            pages = null;
+        }
+    }
+
+    /**
+     * Checks that the tree has not been closed
+     * @throws IllegalStateException if the tree is closed
+     */
+    private void checkOpen() throws IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("tree is closed");
+        }
+    }
+
+    /**
+     * Returns an iterator which walks the slots in index order without boxing
+     * Each step takes amortized O(1) and it fails fast if the tree is structurally changed or closed
+     * @return PrimitiveIterator.OfLong
+     * @throws IllegalStateException if the tree is closed
+     */
+    @Override
+    public PrimitiveIterator.OfLong iterator() throws IllegalStateException {
+        checkOpen();
+        return new SlotIterator();
+    }
+
+    /**
+     * Iterator stepping from each slot to its successor
+     */
+    private final class SlotIterator implements PrimitiveIterator.OfLong {
+        private int next = first();
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next != NIL;
+        }
+
+        @Override
+        public long nextLong() {
+            checkOpen();
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == NIL) {
+                throw new NoSuchElementException();
+            }
+            final int current = next;
+            next = successor(current);
+            return value(current);
+        }
+    }
+}
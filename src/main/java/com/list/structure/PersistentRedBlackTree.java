@@ -0,0 +1,457 @@
+package com.list.structure;
+
+import com.list.structure.interfaces.PositionalTree;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Red black tree whose nodes never change once built
+ * Insert, delete and set copy the O(logN) nodes on the path from the change up to the root
+ * and share the rest with the previous version, so nodes need no parent pointers
+ * A snapshot shares the root and takes O(1), and old versions stay readable however the tree changes
+ *
+ * Inserts rebalance the way Okasaki does and deletes the way Kahrs does, using the sizes
+ * of the subtrees to find an index instead of comparing values
+ * The root is volatile, so other threads can take snapshots without locking
+ * while a single thread writes
+ */
+public class PersistentRedBlackTree<E> implements PositionalTree<E> {
+    //no red black tree with fewer than 2^31 nodes is deeper than this
+    private static final int MAX_HEIGHT = 64;
+
+    private volatile ImmutableNode<E> root; //null when the tree is empty
+    private int modCount = 0; //number of structural changes, used by iterators to fail fast
+
+    /**
+     * Constructor to initialize the structure
+     */
+    public PersistentRedBlackTree() {
+    }
+
+    /**
+     * Constructor for a snapshot sharing the given root
+     * @param root the root of the tree
+     */
+    private PersistentRedBlackTree(final ImmutableNode<E> root) {
+        this.root = root;
+    }
+
+    /**
+     * Node of the tree, which holds the size of its subtree and is never changed
+     */
+    private static final class ImmutableNode<E> {
+        private final E value;
+        private final ImmutableNode<E> left;
+        private final ImmutableNode<E> right;
+        private final boolean red;
+        private final int size;
+
+        ImmutableNode(final boolean red, final ImmutableNode<E> left, final E value, final ImmutableNode<E> right) {
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.red = red;
+            this.size = sizeOf(left) + sizeOf(right) + 1;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the tree in O(1)
+     * Changes made to either tree afterwards do not show in the other
+     * @return the snapshot
+     */
+    @Override
+    public PersistentRedBlackTree<E> snapshot() {
+        return new PersistentRedBlackTree<>(root);
+    }
+
+    /**
+     * Returns the number of elements in the tree
+     * @return the size of the tree
+     */
+    @Override
+    public int size() {
+        return sizeOf(root);
+    }
+
+    /**
+     * Returns if the tree is empty
+     * @return true if the tree is empty
+     */
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Clears the tree
+     */
+    @Override
+    public void clear() {
+        root = null;
+        modCount++;
+    }
+
+    /**
+     * Returns the number of structural changes made to the tree
+     * @return the modification count
+     */
+    @Override
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Returns the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    @Override
+    public E getValue(int index) {
+        ImmutableNode<E> node = root;
+        while (true) {
+            final int leftSize = sizeOf(node.left);
+            if (index == leftSize) {
+                return node.value;
+            } else if (index < leftSize) {
+                node = node.left;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Sets the value at the given index, copying the path to it
+     * Takes O(logN)
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     */
+    @Override
+    public E set(final int index, final E value) {
+        final E valReturn = getValue(index);
+        root = replace(root, index, value);
+        return valReturn;
+    }
+
+    /**
+     * Inserts the value at the given index, copying the path to it
+     * Takes O(logN)
+     * @param index the location where to insert the value
+     * @param value the value to store
+     */
+    @Override
+    public void add(final int index, final E value) {
+        root = blacken(insert(root, index, value));
+        modCount++;
+    }
+
+    /**
+     * Inserts the value at the end of the tree
+     * Takes O(logN)
+     * @param value the value to store
+     */
+    @Override
+    public void add(final E value) {
+        add(size(), value);
+    }
+
+    /**
+     * Removes the value at the given index, copying the path to it
+     * Takes O(logN)
+     * @param index the index of the value to remove
+     * @return the value which was removed
+     */
+    @Override
+    public E remove(final int index) {
+        final E value = getValue(index);
+        root = blacken(delete(root, index));
+        modCount++;
+        return value;
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values in order
+     * Builds a balanced tree bottom up in O(N)
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void load(final List<? extends E> values) {
+        final int redDepth = 31 - Integer.numberOfLeadingZeros(values.size() + 1);
+        root = blacken(build(values, 0, values.size(), 0, redDepth));
+        modCount++;
+    }
+
+    /**
+     * Inserts all the values at the given index in their order
+     * An empty tree is built in O(K), otherwise the values are added one at a time
+     * @param index the location where to insert the values
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void insertAll(final int index, final List<? extends E> values) {
+        if (isEmpty()) {
+            load(values);
+        } else {
+            PositionalTree.super.insertAll(index, values);
+        }
+    }
+
+    /**
+     * Builds a balanced subtree from the values between from, inclusive, and to, exclusive
+     * Only the nodes on the last, partially filled, level are red
+     * @param values the values to store
+     * @param from the index of the first value
+     * @param to the index after the last value
+     * @param depth the depth of the subtree root
+     * @param redDepth the depth of the partially filled level
+     * @return the root of the subtree or null if the range is empty
+     */
+    private ImmutableNode<E> build(final List<? extends E> values, final int from, final int to, final int depth, final int redDepth) {
+        if (from >= to) {
+            return null;
+        }
+        final int mid = (from + to) >>> 1;
+        return new ImmutableNode<>(depth == redDepth,
+                build(values, from, mid, depth + 1, redDepth),
+                values.get(mid),
+                build(values, mid + 1, to, depth + 1, redDepth));
+    }
+
+    /**
+     * Returns an iterator over the tree as it is now, which later changes do not affect
+     * @return Iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new SnapshotIterator<>(root);
+    }
+
+    /**
+     * In order iterator which keeps the path to the next node on a stack, as nodes have no parents
+     */
+    private static final class SnapshotIterator<E> implements Iterator<E> {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private final ImmutableNode<E>[] path = new ImmutableNode[MAX_HEIGHT];
+        private int depth;
+
+        SnapshotIterator(ImmutableNode<E> node) {
+            pushLeftSpine(node);
+        }
+
+        private void pushLeftSpine(ImmutableNode<E> node) {
+            for (; node != null; node = node.left) {
+                path[depth++] = node;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth > 0;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final ImmutableNode<E> node = path[--depth];
+            path[depth] = null;
+            pushLeftSpine(node.right);
+            return node.value;
+        }
+    }
+
+    /**
+     * Copies the path to the index with the value replaced, keeping the colors
+     * @param node the root of the subtree
+     * @param index the index within the subtree
+     * @param value the new value
+     * @return the root of the copied subtree
+     */
+    private ImmutableNode<E> replace(final ImmutableNode<E> node, final int index, final E value) {
+        final int leftSize = sizeOf(node.left);
+        if (index < leftSize) {
+            return new ImmutableNode<>(node.red, replace(node.left, index, value), node.value, node.right);
+        } else if (index > leftSize) {
+            return new ImmutableNode<>(node.red, node.left, node.value, replace(node.right, index - leftSize - 1, value));
+        }
+        return new ImmutableNode<>(node.red, node.left, value, node.right);
+    }
+
+    /**
+     * Inserts the value into the subtree, rebalancing below black nodes on the way back up
+     * The result may be a red node with a red child, which is fixed by blackening the root
+     * @param node the root of the subtree
+     * @param index the index within the subtree
+     * @param value the value to store
+     * @return the root of the new subtree
+     */
+    private ImmutableNode<E> insert(final ImmutableNode<E> node, final int index, final E value) {
+        if (node == null) {
+            return red(null, value, null);
+        }
+        final int leftSize = sizeOf(node.left);
+        if (index <= leftSize) {
+            final ImmutableNode<E> left = insert(node.left, index, value);
+            return node.red ? red(left, node.value, node.right) : balance(left, node.value, node.right);
+        }
+        final ImmutableNode<E> right = insert(node.right, index - leftSize - 1, value);
+        return node.red ? red(node.left, node.value, right) : balance(node.left, node.value, right);
+    }
+
+    /**
+     * Deletes the value from the subtree
+     * A subtree whose root was black comes back one black node shorter,
+     * which the caller makes up for with balanceLeft or balanceRight
+     * @param node the root of the subtree
+     * @param index the index within the subtree
+     * @return the root of the new subtree or null if it is empty
+     */
+    private ImmutableNode<E> delete(final ImmutableNode<E> node, final int index) {
+        final int leftSize = sizeOf(node.left);
+        if (index < leftSize) {
+            final ImmutableNode<E> left = delete(node.left, index);
+            return isBlack(node.left) ? balanceLeft(left, node.value, node.right) : red(left, node.value, node.right);
+        } else if (index > leftSize) {
+            final ImmutableNode<E> right = delete(node.right, index - leftSize - 1);
+            return isBlack(node.right) ? balanceRight(node.left, node.value, right) : red(node.left, node.value, right);
+        }
+        return append(node.left, node.right);
+    }
+
+    /**
+     * Fixes up a node whose left subtree is one black node shorter than its right
+     * @param left the shorter left subtree
+     * @param value the value of the node
+     * @param right the right subtree
+     * @return the root of the balanced subtree
+     */
+    private ImmutableNode<E> balanceLeft(final ImmutableNode<E> left, final E value, final ImmutableNode<E> right) {
+        if (isRed(left)) {
+            return red(black(left.left, left.value, left.right), value, right);
+        } else if (isBlack(right)) {
+            return balance(left, value, red(right.left, right.value, right.right));
+        } else if (isRed(right) && isBlack(right.left)) {
+            return red(black(left, value, right.left.left), right.left.value,
+                    balance(right.left.right, right.value, redden(right.right)));
+        }
+        throw new IllegalStateException("tree is not balanced");
+    }
+
+    /**
+     * Fixes up a node whose right subtree is one black node shorter than its left
+     * @param left the left subtree
+     * @param value the value of the node
+     * @param right the shorter right subtree
+     * @return the root of the balanced subtree
+     */
+    private ImmutableNode<E> balanceRight(final ImmutableNode<E> left, final E value, final ImmutableNode<E> right) {
+        if (isRed(right)) {
+            return red(left, value, black(right.left, right.value, right.right));
+        } else if (isBlack(left)) {
+            return balance(red(left.left, left.value, left.right), value, right);
+        } else if (isRed(left) && isBlack(left.right)) {
+            return red(balance(redden(left.left), left.value, left.right.left), left.right.value,
+                    black(left.right.right, value, right));
+        }
+        throw new IllegalStateException("tree is not balanced");
+    }
+
+    /**
+     * Joins the two subtrees of a deleted node, which have the same black height
+     * @param left the left subtree
+     * @param right the right subtree
+     * @return the root of the joined subtree
+     */
+    private ImmutableNode<E> append(final ImmutableNode<E> left, final ImmutableNode<E> right) {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        } else if (left.red && right.red) {
+            final ImmutableNode<E> middle = append(left.right, right.left);
+            if (isRed(middle)) {
+                return red(red(left.left, left.value, middle.left), middle.value, red(middle.right, right.value, right.right));
+            }
+            return red(left.left, left.value, red(middle, right.value, right.right));
+        } else if (!left.red && !right.red) {
+            final ImmutableNode<E> middle = append(left.right, right.left);
+            if (isRed(middle)) {
+                return red(black(left.left, left.value, middle.left), middle.value, black(middle.right, right.value, right.right));
+            }
+            return balanceLeft(left.left, left.value, black(middle, right.value, right.right));
+        } else if (right.red) {
+            return red(append(left, right.left), right.value, right.right);
+        }
+        return red(left.left, left.value, append(left.right, right));
+    }
+
+    /**
+     * Builds a black node, turning a red node with a red child below it into a red node with two black children
+     * @param left the left subtree
+     * @param value the value of the node
+     * @param right the right subtree
+     * @return the root of the balanced subtree
+     */
+    private ImmutableNode<E> balance(final ImmutableNode<E> left, final E value, final ImmutableNode<E> right) {
+        if (isRed(left) && isRed(right)) {
+            return red(black(left.left, left.value, left.right), value, black(right.left, right.value, right.right));
+        } else if (isRed(left) && isRed(left.left)) {
+            return red(black(left.left.left, left.left.value, left.left.right), left.value, black(left.right, value, right));
+        } else if (isRed(left) && isRed(left.right)) {
+            return red(black(left.left, left.value, left.right.left), left.right.value, black(left.right.right, value, right));
+        } else if (isRed(right) && isRed(right.right)) {
+            return red(black(left, value, right.left), right.value, black(right.right.left, right.right.value, right.right.right));
+        } else if (isRed(right) && isRed(right.left)) {
+            return red(black(left, value, right.left.left), right.left.value, black(right.left.right, right.value, right.right));
+        }
+        return black(left, value, right);
+    }
+
+    /**
+     * Turns a black node red, which deleting only asks for where the node is known to be black
+     * @param node the black node
+     * @return the red copy
+     */
+    private ImmutableNode<E> redden(final ImmutableNode<E> node) {
+        if (!isBlack(node)) {
+            throw new IllegalStateException("tree is not balanced");
+        }
+        return red(node.left, node.value, node.right);
+    }
+
+    /**
+     * Turns the root black
+     * @param node the root
+     * @return the black root or null if the tree is empty
+     */
+    private ImmutableNode<E> blacken(final ImmutableNode<E> node) {
+        return node == null || !node.red ? node : black(node.left, node.value, node.right);
+    }
+
+    private static <E> ImmutableNode<E> red(final ImmutableNode<E> left, final E value, final ImmutableNode<E> right) {
+        return new ImmutableNode<>(true, left, value, right);
+    }
+
+    private static <E> ImmutableNode<E> black(final ImmutableNode<E> left, final E value, final ImmutableNode<E> right) {
+        return new ImmutableNode<>(false, left, value, right);
+    }
+
+    private static boolean isRed(final ImmutableNode<?> node) {
+        return node != null && node.red;
+    }
+
+    private static boolean isBlack(final ImmutableNode<?> node) {
+        return node != null && !node.red;
+    }
+
+    private static int sizeOf(final ImmutableNode<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
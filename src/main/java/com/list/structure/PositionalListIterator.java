@@ -0,0 +1,150 @@
+package com.list.structure;
+
+
+import com.list.structure.interfaces.PositionalTree;
+
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Bidirectional list iterator for any positional tree
+ * It steps by index, so each step takes as long as a lookup in the tree,
+ * and writes through to the tree
+ * It fails fast if the tree is structurally changed other than through the iterator
+ */
+public class PositionalListIterator<E> implements ListIterator<E> {
+    private final PositionalTree<E> tree;
+    private int nextIndex;
+    private int lastReturned = -1; //the index returned by the last call to next or previous, -1 if none
+    private int expectedModCount;
+
+    /**
+     * Constructor
+     * @param tree the tree to which an iterator is required
+     * @param index the index of the first element to be returned by next
+     */
+    public PositionalListIterator(PositionalTree<E> tree, int index) {
+        this.tree = tree;
+        nextIndex = index;
+        expectedModCount = tree.getModCount();
+    }
+
+    /**
+     * Returns if the iterator has a next element
+     * @return true if there is another element
+     */
+    @Override
+    public boolean hasNext() {
+        return nextIndex < tree.size();
+    }
+
+    /**
+     * Returns the next element
+     * @return the value at the next element
+     * @throws NoSuchElementException if there is no next element
+     */
+    @Override
+    public E next() throws NoSuchElementException {
+        checkForComodification();
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        lastReturned = nextIndex++;
+        return tree.getValue(lastReturned);
+    }
+
+    /**
+     * Returns if the iterator has a previous element
+     * @return true if there is an element before the cursor
+     */
+    @Override
+    public boolean hasPrevious() {
+        return nextIndex > 0;
+    }
+
+    /**
+     * Returns the previous element
+     * @return the value at the previous element
+     * @throws NoSuchElementException if there is no previous element
+     */
+    @Override
+    public E previous() throws NoSuchElementException {
+        checkForComodification();
+        if (!hasPrevious()) {
+            throw new NoSuchElementException();
+        }
+        lastReturned = --nextIndex;
+        return tree.getValue(lastReturned);
+    }
+
+    @Override
+    public int nextIndex() {
+        return nextIndex;
+    }
+
+    @Override
+    public int previousIndex() {
+        return nextIndex - 1;
+    }
+
+    /**
+     * Removes the element last returned by next or previous from the tree
+     * @throws IllegalStateException if next or previous has not been called since the last add or remove
+     */
+    @Override
+    public void remove() throws IllegalStateException {
+        if (lastReturned == -1) {
+            throw new IllegalStateException();
+        }
+        checkForComodification();
+        tree.remove(lastReturned);
+        nextIndex = lastReturned;
+        lastReturned = -1;
+        expectedModCount = tree.getModCount();
+    }
+
+    /**
+     * Replaces the element last returned by next or previous
+     * @param value the value to store
+     * @throws NullPointerException if value is null
+     * @throws IllegalStateException if next or previous has not been called since the last add or remove
+     */
+    @Override
+    public void set(E value) throws NullPointerException,IllegalStateException {
+        if (value == null) {
+            throw new NullPointerException("Given element is null");
+        }
+        if (lastReturned == -1) {
+            throw new IllegalStateException();
+        }
+        checkForComodification();
+        tree.set(lastReturned, value);
+    }
+
+    /**
+     * Inserts the element before the element that would be returned by next
+     * @param value the value to store
+     * @throws NullPointerException if value is null
+     */
+    @Override
+    public void add(E value) throws NullPointerException {
+        if (value == null) {
+            throw new NullPointerException("Given element is null");
+        }
+        checkForComodification();
+        tree.add(nextIndex++, value);
+        lastReturned = -1;
+        expectedModCount = tree.getModCount();
+    }
+
+    /**
+     * Checks that the tree has not been structurally changed other than through this iterator
+     * @throws ConcurrentModificationException if it has
+     */
+    private void checkForComodification() throws ConcurrentModificationException {
+        if (tree.getModCount() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.list.structure;
+
+import com.list.structure.interfaces.PositionalTree;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of indexes of a positional tree
+ * It splits at the middle index of its range without touching the tree, so both halves know
+ * their exact size, and only looks up the start of its range once it is traversed,
+ * which takes O(logN) before stepping through the range with the list iterator of the tree
+ * It fails fast if the tree is structurally changed after the spliterator was created
+ */
+public class PositionalSpliterator<E> implements Spliterator<E> {
+    private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | NONNULL;
+
+    private final PositionalTree<E> tree;
+    private int from;
+    private final int to;
+    private final int expectedModCount;
+    private Iterator<E> iterator; //created at the first traversal
+
+    /**
+     * Constructor
+     * @param tree the tree to traverse
+     * @param from the index of the first element, inclusive
+     * @param to the index after the last element, exclusive
+     */
+    public PositionalSpliterator(PositionalTree<E> tree, int from, int to) {
+        this(tree, from, to, tree.getModCount());
+    }
+
+    private PositionalSpliterator(PositionalTree<E> tree, int from, int to, int expectedModCount) {
+        this.tree = tree;
+        this.from = from;
+        this.to = to;
+        this.expectedModCount = expectedModCount;
+    }
+
+    /**
+     * Splits off the first half of the remaining range, unless traversal has started
+     * Takes O(1)
+     * @return a spliterator over the first half or null if the range can not be split
+     */
+    @Override
+    public Spliterator<E> trySplit() {
+        final int mid = (from + to) >>> 1;
+        if (iterator != null || mid == from) {
+            return null;
+        }
+        final Spliterator<E> prefix = new PositionalSpliterator<>(tree, from, mid, expectedModCount);
+        from = mid;
+        return prefix;
+    }
+
+    /**
+     * Performs the action on the next element if there is one
+     * @param action the action
+     * @return true if there was an element
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+        if (from >= to) {
+            return false;
+        }
+        final E value = start().next();
+        from++;
+        action.accept(value);
+        return true;
+    }
+
+    /**
+     * Performs the action on every remaining element in order
+     * @param action the action
+     */
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+        if (from >= to) {
+            return;
+        }
+        final Iterator<E> values = start();
+        for (; from < to; from++) {
+            action.accept(values.next());
+        }
+        checkForComodification();
+    }
+
+    /**
+     * Returns the iterator positioned at the start of the range, creating it if needed
+     * @return the iterator
+     */
+    private Iterator<E> start() {
+        if (iterator == null) {
+            checkForComodification();
+            iterator = from == 0 ? tree.iterator() : tree.listIterator(from);
+        }
+        return iterator;
+    }
+
+    /**
+     * Checks that the tree has not been structurally changed since the spliterator was created
+     * @throws ConcurrentModificationException if it has
+     */
+    private void checkForComodification() throws ConcurrentModificationException {
+        if (tree.getModCount() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+}
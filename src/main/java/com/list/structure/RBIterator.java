@@ -1,16 +1,19 @@
 package com.list.structure;
 
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 /**
  * In Order Iterator for Red Black tree
+ * It fails fast if the tree is structurally changed, as removed nodes are unlinked
  * Created by Dhanish Mehta on 2/13/17.
  */
-public class RBIterator<E> implements Iterator{
+public class RBIterator<E> implements Iterator<E> {
     private Node<E> next; //storing the next node for the iterator
     private final RedBlackTree<E> tree;
+    private final int expectedModCount;
 
     /**
      * Constructor
@@ -18,6 +21,7 @@ public class RBIterator<E> implements Iterator{
      */
     public RBIterator(RedBlackTree<E> tree){
         this.tree = tree;
+        expectedModCount = tree.modCount;
         next = tree.getRoot();
         if (tree.isNil(next)){
             return;
@@ -41,11 +45,15 @@ public class RBIterator<E> implements Iterator{
     /**
      * Returns the next element
      * @return the value at the next element
+     * @throws ConcurrentModificationException if the tree was structurally changed
      */
     @Override
-    public Object next() {
+    public E next() {
+        if (tree.modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
         if(!hasNext()) throw new NoSuchElementException();
-        Node toReturn = next;
+        Node<E> toReturn = next;
 
         //follow the in order paradigm
         if( !tree.isNil(next.getRight())){
@@ -0,0 +1,164 @@
+package com.list.structure;
+
+
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Bidirectional list iterator for Red Black tree
+ * It walks the nodes of the tree itself, so it is created in O(logN), steps in amortized O(1)
+ * and writes through to the tree
+ * It fails fast if the tree is structurally changed other than through the iterator
+ */
+public class RBListIterator<E> implements ListIterator<E> {
+    private final RedBlackTree<E> tree;
+    private Node<E> next; //the node returned by the next call to next, nil at the end
+    private int nextIndex;
+    private Node<E> lastReturned; //the node returned by the last call to next or previous
+    private int expectedModCount;
+
+    /**
+     * Constructor
+     * @param tree the tree to which an iterator is required
+     * @param index the index of the first element to be returned by next
+     */
+    public RBListIterator(RedBlackTree<E> tree, int index) {
+        this.tree = tree;
+        next = index == tree.size() ? tree.nil : tree.get(index);
+        nextIndex = index;
+        expectedModCount = tree.modCount;
+    }
+
+    /**
+     * Returns if the iterator has a next element
+     * @return true if there is another element
+     */
+    @Override
+    public boolean hasNext() {
+        return !tree.isNil(next);
+    }
+
+    /**
+     * Returns the next element
+     * @return the value at the next element
+     * @throws NoSuchElementException if there is no next element
+     */
+    @Override
+    public E next() throws NoSuchElementException {
+        checkForComodification();
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        lastReturned = next;
+        next = tree.successor(next);
+        nextIndex++;
+        return lastReturned.getValue();
+    }
+
+    /**
+     * Returns if the iterator has a previous element
+     * @return true if there is an element before the cursor
+     */
+    @Override
+    public boolean hasPrevious() {
+        return nextIndex > 0;
+    }
+
+    /**
+     * Returns the previous element
+     * @return the value at the previous element
+     * @throws NoSuchElementException if there is no previous element
+     */
+    @Override
+    public E previous() throws NoSuchElementException {
+        checkForComodification();
+        if (!hasPrevious()) {
+            throw new NoSuchElementException();
+        }
+        next = tree.predecessor(next);
+        lastReturned = next;
+        nextIndex--;
+        return lastReturned.getValue();
+    }
+
+    @Override
+    public int nextIndex() {
+        return nextIndex;
+    }
+
+    @Override
+    public int previousIndex() {
+        return nextIndex - 1;
+    }
+
+    /**
+     * Removes the element last returned by next or previous from the tree
+     * @throws IllegalStateException if next or previous has not been called since the last add or remove
+     */
+    @Override
+    public void remove() throws IllegalStateException {
+        if (lastReturned == null) {
+            throw new IllegalStateException();
+        }
+        checkForComodification();
+        if (lastReturned == next) {
+            //removing the element returned by previous, the cursor stays where it is
+            next = tree.successor(next);
+        } else {
+            nextIndex--;
+        }
+        tree.delete(lastReturned);
+        lastReturned = null;
+        expectedModCount = tree.modCount;
+    }
+
+    /**
+     * Replaces the element last returned by next or previous
+     * @param value the value to store
+     * @throws NullPointerException if value is null
+     * @throws IllegalStateException if next or previous has not been called since the last add or remove
+     */
+    @Override
+    public void set(E value) throws NullPointerException,IllegalStateException {
+        if (value == null) {
+            throw new NullPointerException("Given element is null");
+        }
+        if (lastReturned == null) {
+            throw new IllegalStateException();
+        }
+        checkForComodification();
+        tree.set(lastReturned, value);
+    }
+
+    /**
+     * Inserts the element before the element that would be returned by next
+     * @param value the value to store
+     * @throws NullPointerException if value is null
+     */
+    @Override
+    public void add(E value) throws NullPointerException {
+        if (value == null) {
+            throw new NullPointerException("Given element is null");
+        }
+        checkForComodification();
+        if (tree.isNil(next)) {
+            tree.insert(value);
+        } else {
+            tree.insertBefore(next, value);
+        }
+        nextIndex++;
+        lastReturned = null;
+        expectedModCount = tree.modCount;
+    }
+
+    /**
+     * Checks that the tree has not been structurally changed other than through this iterator
+     * @throws ConcurrentModificationException if it has
+     */
+    private void checkForComodification() throws ConcurrentModificationException {
+        if (tree.modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+}
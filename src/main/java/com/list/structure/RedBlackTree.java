@@ -1,6 +1,20 @@
 package com.list.structure;
 
-import java.util.Stack;
+import com.list.stats.TreeListMetrics;
+import com.list.structure.interfaces.PositionalTree;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Self balancing red black tree structure
@@ -14,15 +28,60 @@ import java.util.Stack;
  * Created by Dhanish on 12 Feb,17.
  */
 public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTree<E> {
+    //nil node for the leafs, shared by every tree so nodes can move between trees
+    //it is never written to after construction
+    @SuppressWarnings("rawtypes")
+    private static final Node NIL = new Node<>();
+    //no red black tree with fewer than 2^31 nodes is deeper than this
+    private static final int MAX_HEIGHT = 64;
+
     private Node<E> root;
-    final Node<E> nil = new Node<>(); //nil node for the leafs
+    @SuppressWarnings("unchecked")
+    final Node<E> nil = (Node<E>) NIL;
+    int modCount = 0; //number of structural changes, used by iterators to fail fast
+    private Map<E, Set<Node<E>>> valueIndex; //nodes holding each value, null unless values are indexed
+    //the node found by the last positional lookup and its index, valid while modCount is fingerModCount
+    private Node<E> finger;
+    private int fingerIndex;
+    private int fingerModCount;
+    //the rightmost node, which appends attach under, valid while modCount is lastModCount
+    private Node<E> last;
+    private int lastModCount;
+    private TreeListMetrics metrics; //null unless metrics are enabled
 
     /**
      * Constructor to initialize the structure
      */
     public RedBlackTree() {
         root = nil;
-        root.setParent(nil);
+    }
+
+    /**
+     * Records rotations, searches for an index and in order scans for a value in the given metrics
+     * @param metrics the metrics of the list
+     */
+    @Override
+    public void setMetrics(final TreeListMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the number of nodes on the longest path from the root
+     * Takes O(N) as every path is walked
+     * @return the height of the tree
+     */
+    @Override
+    public int getHeight() {
+        return getHeight(root);
+    }
+
+    /**
+     * Returns the height of the subtree
+     * @param node the root of the subtree
+     * @return the height or 0 for nil
+     */
+    private int getHeight(final Node<E> node) {
+        return isNil(node) ? 0 : Math.max(getHeight(node.getLeft()), getHeight(node.getRight())) + 1;
     }
 
     /**
@@ -49,111 +108,484 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
     @Override
     public void clear() {
         root = nil;
-        root.setParent(nil);
+        finger = null;
+        last = null;
+        if (valueIndex != null) {
+            valueIndex.clear();
+        }
+        modCount++;
+    }
+
+    /**
+     * Returns the number of structural changes made to the tree,
+     * which iterators and views use to detect changes made behind their backs
+     * @return the modification count
+     */
+    @Override
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Returns the number of elements in the tree
+     * @return the size of the tree
+     */
+    @Override
+    public int size() {
+        return root.getSize();
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values in order
+     * The tree is built bottom up by making the middle value of every range its root,
+     * so it comes out perfectly balanced with the children counts already set.
+     * This takes O(N) instead of the O(NlogN) of inserting the values one by one
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void load(final List<? extends E> values) {
+        root = detach(build(values, 0, values.size(), 0, getRedDepth(values.size())));
+        if (valueIndex != null) {
+            valueIndex.clear();
+            indexSubtree(root, true);
+        }
+        modCount++;
+    }
+
+    /**
+     * Builds a balanced subtree out of the values between from and to
+     * Nodes on the last, partially filled level are coloured red and the rest black,
+     * which gives every path the same number of black nodes
+     * @param values the values to store
+     * @param from the first index of the range, inclusive
+     * @param to the last index of the range, exclusive
+     * @param depth the depth of the subtree root
+     * @param redDepth the depth of the partially filled level
+     * @return the root of the subtree or nil if the range is empty
+     */
+    private Node<E> build(final List<? extends E> values, final int from, final int to, final int depth, final int redDepth) {
+        if (from >= to) {
+            return nil;
+        }
+        final int mid = (from + to) >>> 1;
+        Node<E> node = new Node<>(values.get(mid));
+        Node<E> left = build(values, from, mid, depth + 1, redDepth);
+        Node<E> right = build(values, mid + 1, to, depth + 1, redDepth);
+
+        node.setLeft(left);
+        node.setRight(right);
+        node.setSize(to - from);
+        if (!isNil(left)) {
+            left.setParent(node);
+        }
+        if (!isNil(right)) {
+            right.setParent(node);
+        }
+        node.setColor(depth == redDepth ? Node.Color.RED : Node.Color.BLACK);
+        return node;
+    }
+
+    /**
+     * Builds a balanced subtree out of the existing nodes between from and to, like build,
+     * so the nodes keep their identity and references to them stay valid
+     * @param nodes the nodes in index order
+     * @param from the first index of the range, inclusive
+     * @param to the last index of the range, exclusive
+     * @param depth the depth of the subtree root
+     * @param redDepth the depth of the partially filled level
+     * @return the root of the subtree or nil if the range is empty
+     */
+    private Node<E> relink(final Node<E>[] nodes, final int from, final int to, final int depth, final int redDepth) {
+        if (from >= to) {
+            return nil;
+        }
+        final int mid = (from + to) >>> 1;
+        Node<E> node = nodes[mid];
+        Node<E> left = relink(nodes, from, mid, depth + 1, redDepth);
+        Node<E> right = relink(nodes, mid + 1, to, depth + 1, redDepth);
+
+        node.setLeft(left);
+        node.setRight(right);
+        node.setSize(to - from);
+        if (!isNil(left)) {
+            left.setParent(node);
+        }
+        if (!isNil(right)) {
+            right.setParent(node);
+        }
+        node.setColor(depth == redDepth ? Node.Color.RED : Node.Color.BLACK);
+        return node;
+    }
+
+    /**
+     * Gets the depth of the last level of a balanced tree of the given size,
+     * which is only partially filled unless size + 1 is a power of two
+     * @param size the number of nodes in the tree
+     * @return the depth of the partially filled level
+     */
+    private static int getRedDepth(final int size) {
+        return 31 - Integer.numberOfLeadingZeros(size + 1);
     }
 
     /**
      * Inserts a element to the end of the tree
+     * The new node is attached straight under the rightmost node, which is remembered from the last append
+     * until another structural change, so a run of appends does not walk down the tree.
+     * The sizes are then fixed in one pass up to the root and the colours as far up as needed
      * @param value the value to store
+     * @return the node holding the value
      */
     @Override
-    public void insert(final E value) {
-        int indexesVisited = 0;
-        Node<E> y = nil;
-        Node<E> x = root;
+    public Node<E> insert(final E value) {
         Node<E> toInsert = new Node<>(value);
-        final int index = getSizeAtNode(root);
-
-        while (!isNil(x)) {
-            y = x;
-            if (index <= x.getLeftChildren() + indexesVisited) {
-                x = x.getLeft();
-            } else {
-                indexesVisited += x.getLeftChildren() + 1;
-                x = x.getRight();
-            }
-        }
-        indexesVisited -= 1;
-        toInsert.setParent(y);
-        if (isNil(y)) {
+        index(toInsert);
+        final Node<E> parent = last != null && lastModCount == modCount ? last : getMaximumNode(root);
+        toInsert.setParent(parent);
+        if (isNil(parent)) {
             root = toInsert;
-        } else if (index < indexesVisited) {
-            y.setLeft(toInsert);
-            y.setLeftChildren(toInsert.getLeftChildren() + 1);
-        } else if (index > indexesVisited){
-            y.setRight(toInsert);
-            y.setRightChildren(toInsert.getRightChildren() + 1);
+        } else {
+            parent.setRight(toInsert);
         }
         toInsert.setLeft(nil);
         toInsert.setRight(nil);
         toInsert.setColor(Node.Color.RED);
-        fixParentsChildren(toInsert);
+        fixParentsChildren(toInsert, 1);
         insertFix(toInsert);
+        modCount++;
+        //rotations keep the order, so the new node is still the rightmost one
+        last = toInsert;
+        lastModCount = modCount;
+        return toInsert;
     }
 
     /**
      * Inserts the element at the given index
+     * The new node is attached as a leaf just before the node currently at the index,
+     * either as its left child or as the right child of its predecessor
      * @param index the location where to insert the element
      * @param value the value to store
+     * @return the node holding the value
      */
-    public void insert(final int index, final E value){
+    @Override
+    public Node<E> insert(final int index, final E value){
+        if (index == root.getSize()) {
+            return insert(value);
+        }
+        return insertBefore(get(index), value);
+    }
 
+    /**
+     * Inserts the element just before the given node
+     * @param current the node which will follow the new one
+     * @param value the value to store
+     * @return the node that was inserted
+     */
+    Node<E> insertBefore(Node<E> current, final E value) {
         Node<E> toInsert = new Node<>(value);
+        index(toInsert);
+        if (isNil(current.getLeft())) {
+            current.setLeft(toInsert);
+        } else {
+            current = getMaximumNode(current.getLeft());
+            current.setRight(toInsert);
+        }
+        toInsert.setParent(current);
+        toInsert.setLeft(nil);
+        toInsert.setRight(nil);
+        toInsert.setColor(Node.Color.RED);
+        fixParentsChildren(toInsert, 1);
+        insertFix(toInsert);
+        modCount++;
+        return toInsert;
+    }
 
-        Node<E> current = get(index);
+    /**
+     * Inserts all the values at the given index in their order
+     * The values are built into a balanced subtree in O(K) which is then joined
+     * with the two halves of the tree split at the index in O(logN),
+     * instead of paying O(logN) for every value
+     * @param index the location where to insert the values
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void insertAll(final int index, final List<? extends E> values) {
+        final int count = values.size();
+        if (count == 0) {
+            return;
+        }
+        if (isEmpty()) {
+            load(values);
+            return;
+        }
+        Halves<E> halves = split(root, getBlackHeight(root), index);
+        Node<E> first = new Node<>(values.get(0));
+        index(first);
+        if (count == 1) {
+            join(halves.left, halves.leftHeight, first, halves.right, halves.rightHeight);
+            modCount++;
+            return;
+        }
+        Node<E> inner = detach(build(values, 1, count - 1, 0, getRedDepth(count - 2)));
+        Node<E> last = new Node<>(values.get(count - 1));
+        indexSubtree(inner, true);
+        index(last);
+        final int height = join(halves.left, halves.leftHeight, first, inner, getBlackHeight(inner));
+        join(root, height, last, halves.right, halves.rightHeight);
+        modCount++;
+    }
 
-        if (isNil(current.getParent())){
-            //the current element we are replacing is the root
-            root = toInsert;
-            toInsert.setParent(nil);
+    /**
+     * Splits the tree at the given index, keeping the elements before the index in this tree
+     * The nodes from the index onwards are moved to the returned tree without copying
+     * Takes O(logN)
+     * @param index the index of the first element to move
+     * @return a tree holding the elements from the index onwards
+     */
+    @Override
+    public RedBlackTree<E> split(final int index) {
+        Halves<E> halves = split(root, getBlackHeight(root), index);
+        RedBlackTree<E> other = new RedBlackTree<>();
+        other.root = halves.right;
+        root = halves.left;
+        if (valueIndex != null) {
+            indexSubtree(other.root, false);
+            other.setValueIndexed(true);
+        }
+        modCount++;
+        return other;
+    }
+
+    /**
+     * Joins the given tree to the end of this one
+     * The nodes of the other tree are moved into this tree without copying, leaving it empty
+     * Takes O(logN)
+     * @param other the tree whose elements go after the elements of this tree
+     * @throws IllegalArgumentException if other is this tree or not a RedBlackTree
+     */
+    @Override
+    public void join(final PositionalTree<E> other) throws IllegalArgumentException {
+        if (other == this || !(other instanceof RedBlackTree)) {
+            throw new IllegalArgumentException("can only join a different RedBlackTree");
+        }
+        final RedBlackTree<E> tree = (RedBlackTree<E>) other;
+        if (tree.isEmpty()) {
+            return;
+        }
+        final Node<E> right = tree.root;
+        tree.clear();
+        indexSubtree(right, true);
+        join(root, getBlackHeight(root), right, getBlackHeight(right));
+        modCount++;
+    }
+
+    /**
+     * Deletes the elements from fromIndex, inclusive, to toIndex, exclusive
+     * The range is cut out by splitting the tree around it and the two ends are joined back,
+     * which takes O(logN) however many elements are deleted
+     * @param fromIndex the index of the first element to delete
+     * @param toIndex the index after the last element to delete
+     */
+    @Override
+    public void deleteRange(final int fromIndex, final int toIndex) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+        Halves<E> tail = split(root, getBlackHeight(root), toIndex);
+        Halves<E> head = split(tail.left, tail.leftHeight, fromIndex);
+        join(head.left, head.leftHeight, tail.right, tail.rightHeight);
+        indexSubtree(head.right, false);
+        modCount++;
+    }
+
+    /**
+     * The two trees a tree is split into along with their black heights
+     */
+    private static final class Halves<E> {
+        private Node<E> left;
+        private int leftHeight;
+        private Node<E> right;
+        private int rightHeight;
+    }
+
+    /**
+     * Splits the subtree rooted at the given node into the nodes before the index
+     * and the nodes from the index onwards, reusing the nodes of the subtree
+     * Takes O(logN) as the joins on the way back up add up to the height of the tree
+     * @param node the root of the subtree to split, which must be black and have no parent
+     * @param height the black height of the subtree
+     * @param index the index of the first node to go to the right half
+     * @return the roots of the left and right halves
+     */
+    private Halves<E> split(final Node<E> node, final int height, final int index) {
+        if (isNil(node)) {
+            Halves<E> halves = new Halves<>();
+            halves.left = nil;
+            halves.right = nil;
+            return halves;
+        }
+        //a red child gains a black node when it is detached
+        final int leftHeight = height - (node.getLeft().getColor() == Node.Color.RED ? 0 : 1);
+        final int rightHeight = height - (node.getRight().getColor() == Node.Color.RED ? 0 : 1);
+        final Node<E> left = detach(node.getLeft());
+        final Node<E> right = detach(node.getRight());
+        Halves<E> halves;
+        if (index <= node.getLeftChildren()) {
+            halves = split(left, leftHeight, index);
+            halves.rightHeight = join(halves.right, halves.rightHeight, node, right, rightHeight);
+            halves.right = root;
+        } else {
+            halves = split(right, rightHeight, index - node.getLeftChildren() - 1);
+            halves.leftHeight = join(left, leftHeight, node, halves.left, halves.leftHeight);
+            halves.left = root;
+        }
+        return halves;
+    }
+
+    /**
+     * Joins two trees with no parents around a middle node, keeping the order left, middle, right
+     * The middle node is placed on the spine of the taller tree where the black heights match
+     * and the red-black properties are then fixed like after an insert
+     * The joined tree is left as the root of this tree
+     * Takes O(difference in black heights)
+     * @param left the root of the tree that goes first
+     * @param leftHeight the black height of the left tree
+     * @param middle a single node which goes between the two trees
+     * @param right the root of the tree that goes last
+     * @param rightHeight the black height of the right tree
+     * @return the black height of the joined tree
+     */
+    private int join(final Node<E> left, int leftHeight, final Node<E> middle, final Node<E> right, int rightHeight) {
+        final int height = Math.max(leftHeight, rightHeight);
+        Node<E> parent = nil;
+        Node<E> x = left;
+        Node<E> y = right;
+
+        if (leftHeight > rightHeight) {
+            root = left;
+            //walking down the right spine of the left tree to a black node with the same black height
+            while (x.getColor() == Node.Color.RED || leftHeight > rightHeight) {
+                if (x.getColor() == Node.Color.BLACK) {
+                    leftHeight--;
+                }
+                parent = x;
+                x = x.getRight();
+            }
+        } else if (rightHeight > leftHeight) {
+            root = right;
+            while (y.getColor() == Node.Color.RED || rightHeight > leftHeight) {
+                if (y.getColor() == Node.Color.BLACK) {
+                    rightHeight--;
+                }
+                parent = y;
+                y = y.getLeft();
+            }
         } else {
-            toInsert.setParent(current.getParent());
+            root = middle;
         }
-        //getting the currents left children and setting them to the new ones left
-        toInsert.setLeft(current.getLeft());
-        toInsert.setLeftChildren(getSizeAtNode(current.getLeft()));
-        //setting the currents left to nil so no repeated elements
-        current.setLeft(nil);
-        current.setLeftChildren(0);
 
-        toInsert.setRight(current);
-        toInsert.setRightChildren(getSizeAtNode(current));
+        middle.setLeft(x);
+        middle.setRight(y);
+        updateSize(middle);
+        //middle takes the place of x or y under the parent
+        final int added = middle.getSize() - (root == left ? x : y).getSize();
+        middle.setParent(parent);
+        if (!isNil(x)) {
+            x.setParent(middle);
+        }
+        if (!isNil(y)) {
+            y.setParent(middle);
+        }
 
-        if (current == current.getParent().getLeft()){
-            current.getParent().setLeft(toInsert);
-        } else if (current == current.getParent().getRight()) {
-            current.getParent().setRight(toInsert);
+        if (isNil(parent)) {
+            middle.setColor(Node.Color.BLACK);
+            return height + 1;
         }
+        if (root == left) {
+            parent.setRight(middle);
+        } else {
+            parent.setLeft(middle);
+        }
+        middle.setColor(Node.Color.RED);
+        fixParentsChildren(middle, added);
+        return insertFix(middle) ? height + 1 : height;
+    }
 
-        current.setParent(toInsert);
+    /**
+     * Joins two trees with no parents, keeping every node of the left tree before every node of the right one
+     * The first node of the right tree is split off and used as the middle node of the join
+     * The joined tree is left as the root of this tree
+     * @param left the root of the tree that goes first
+     * @param leftHeight the black height of the left tree
+     * @param right the root of the tree that goes last
+     * @param rightHeight the black height of the right tree
+     * @return the black height of the joined tree
+     */
+    private int join(final Node<E> left, final int leftHeight, final Node<E> right, final int rightHeight) {
+        if (isNil(right)) {
+            root = left;
+            return leftHeight;
+        }
+        Halves<E> halves = split(right, rightHeight, 1);
+        return join(left, leftHeight, halves.left, halves.right, halves.rightHeight);
+    }
 
-        toInsert.setColor(Node.Color.RED);
-        fixParentsChildren(toInsert);
-        insertFix(toInsert);
+    /**
+     * Makes the node the black root of a tree of its own
+     * @param node the node to detach from its parent
+     * @return the detached node
+     */
+    private Node<E> detach(final Node<E> node) {
+        if (!isNil(node)) {
+            node.setParent(nil);
+            node.setColor(Node.Color.BLACK);
+        }
+        return node;
     }
 
     /**
-     * When insertions are made, the number of children in
-     * the parent nodes might become outdated and need to be updated
-     * @param node the node that was inserted
+     * Counts the black nodes on the path from the node down to a leaf,
+     * which is the same for every path in a red-black tree
+     * @param node the node to count from
+     * @return the black height of the node
      */
-    private void fixParentsChildren(Node<E> node){
-        while (!isNil(node)){
-            if (node == node.getParent().getLeft()){
-                node.getParent().setLeftChildren(getSizeAtNode(node));
-            } else if (node == node.getParent().getRight()){ //this if condition is to get rid of
-                // the algorithm setting children for nil nodes
-                node.getParent().setRightChildren(getSizeAtNode(node));
+    private int getBlackHeight(Node<E> node) {
+        int height = 0;
+        while (!isNil(node)) {
+            if (node.getColor() == Node.Color.BLACK) {
+                height++;
             }
-            node = node.getParent();
+            node = node.getLeft();
+        }
+        return height;
+    }
+
+    /**
+     * When insertions are made, the subtree sizes of the
+     * parent nodes might become outdated and need to be updated
+     * Only the ancestors themselves are touched, not their other children
+     * @param node the node that was inserted
+     * @param added the number of nodes the subtree of the parent gained
+     */
+    private void fixParentsChildren(Node<E> node, final int added){
+        for (node = node.getParent(); !isNil(node); node = node.getParent()) {
+            node.setSize(node.getSize() + added);
         }
     }
+
+    /**
+     * Recomputes the subtree size of the node from the sizes of its children
+     * @param node the node to update, which must not be nil
+     */
+    private void updateSize(final Node<E> node) {
+        node.setSize(node.getLeft().getSize() + node.getRight().getSize() + 1);
+    }
     /**
      * Inserting an element in the tree can cause various violations of the red-black
      * property of the tree
      * @param inserted the node that was inserted
+     * @return true if the root had to be turned back to black, which adds one to the black height of the tree
      */
-    private void insertFix(Node<E> inserted) {
+    private boolean insertFix(Node<E> inserted) {
 
         while (inserted.getParent().getColor() == Node.Color.RED) {
             if (inserted.getParent() == inserted.getParent().getParent().getLeft()) {
@@ -198,7 +630,9 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
 
             }
         }
+        final boolean grew = root.getColor() == Node.Color.RED;
         root.setColor(Node.Color.BLACK);
+        return grew;
     }
 
     /**
@@ -217,9 +651,11 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
      * @param x the node to rotate
      */
     private void leftRotate(final Node<E> x) {
+        if (TreeListMetrics.ENABLED && metrics != null) {
+            metrics.recordRotation();
+        }
         Node<E> y = x.getRight();
         x.setRight(y.getLeft()); //turing y's left subtree to x's right subtree
-        x.setRightChildren(getSizeAtNode(y.getLeft()));
 
         if (!isNil(y.getLeft())) { //setting the parent for the now right node of x
             y.getLeft().setParent(x);
@@ -228,41 +664,32 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
         y.setParent(x.getParent()); //link x's parent to y
 
         y.setLeft(x); //putting x on y's left
-        y.setLeftChildren(getSizeAtNode(x));
-
+        //y takes over the whole subtree of x, the parent keeps its size
+        y.setSize(x.getSize());
+        updateSize(x);
 
         if (isNil(x.getParent())) {
             root = y;
         } else if (x == x.getParent().getLeft()) {
             x.getParent().setLeft(y);
-            x.getParent().setLeftChildren(getSizeAtNode(y));
         } else {
             x.getParent().setRight(y);
-            x.getParent().setRightChildren(getSizeAtNode(y));
         }
 
         x.setParent(y);
 
     }
 
-    /**
-     * Gets the size of the left subtree plus right subtree plus the node itself
-     * if its not nil
-     * @param node whose size is needed
-     * @return the size of the tree at node
-     */
-    private int getSizeAtNode(final Node<E> node){
-        return node.getLeftChildren() + node.getRightChildren() + (isNil(node) ? 0:1);
-    }
-
     /**
      * Rotates the given node y and its parent in a right orientation
      * @param y the node to rotate
      */
     private void rightRotate(final Node<E> y) {
+        if (TreeListMetrics.ENABLED && metrics != null) {
+            metrics.recordRotation();
+        }
         Node<E> x = y.getLeft();
         y.setLeft(x.getRight()); //turing x's left subtree to y's left subtree
-        y.setLeftChildren(getSizeAtNode(y.getLeft()));
 
         if (!isNil(x.getRight())) { //setting the parent for the now left node of y
             x.getRight().setParent(y);
@@ -270,17 +697,16 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
 
         x.setParent(y.getParent()); //link y's parent to x
         x.setRight(y); //putting y on x's right
-        x.setRightChildren(getSizeAtNode(y));
-
+        //x takes over the whole subtree of y, the parent keeps its size
+        x.setSize(y.getSize());
+        updateSize(y);
 
         if (isNil(y.getParent())) {
             root = x;
         } else if (y == y.getParent().getRight()) {
             y.getParent().setRight(x);
-            y.getParent().setRightChildren(getSizeAtNode(x));
         } else {
             y.getParent().setLeft(x);
-            y.getParent().setLeftChildren(getSizeAtNode(x));
         }
 
         y.setParent(x);
@@ -289,6 +715,11 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
     /**
      * Returns the node at the index specified
      * This operation is performed in O(logN) time as the structure is a balancing binary tree
+     * The node found last is kept as a finger until the tree is structurally changed, and the search
+     * climbs from it only as far as the first ancestor whose subtree holds the index before going down,
+     * so walking the indexes in order or working around one place takes amortized O(1) per call
+     * and a jump of D indexes takes about O(logD). Unlike peek this writes to the tree,
+     * so concurrent readers have to use peek
      *
      * @param index the index to get the node at
      * @return the node at the index
@@ -297,8 +728,31 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
     public Node<E> get(final int index) {
         Node<E> searcher = root;
         int indexesVisited = 0;
+        int depth = 0; //nodes visited, for the metrics
+        if (finger != null && fingerModCount == modCount) {
+            searcher = finger;
+            indexesVisited = fingerIndex - searcher.getLeftChildren(); //index of the first node of the subtree
+            int end = indexesVisited + searcher.getSize();
+            while ((index < indexesVisited || index >= end) && !isNil(searcher.getParent())) {
+                final Node<E> parent = searcher.getParent();
+                if (searcher == parent.getLeft()) {
+                    end += parent.getSize() - searcher.getSize();
+                } else {
+                    indexesVisited -= parent.getSize() - searcher.getSize();
+                }
+                searcher = parent;
+                depth++;
+            }
+        }
         while (!isNil(searcher)) {
+            depth++;
             if (index == searcher.getLeftChildren() + indexesVisited) {
+                finger = searcher;
+                fingerIndex = index;
+                fingerModCount = modCount;
+                if (TreeListMetrics.ENABLED && metrics != null) {
+                    metrics.recordSearch(depth);
+                }
                 return searcher;
             } else if (index < searcher.getLeftChildren() + indexesVisited) {
                 searcher = searcher.getLeft();
@@ -310,6 +764,128 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
         return null;
     }
 
+    /**
+     * Returns the value at the index without trusting the tree to be in a consistent state,
+     * for readers which may race a writer and check afterwards whether one ran
+     * The walk gives up instead of failing when it finds a broken link or goes deeper than any tree can be
+     * Takes O(logN)
+     * @param index the index of the value
+     * @return the value at the index or null if the walk gave up
+     */
+    @Override
+    public E peek(int index) {
+        Node<E> searcher = root;
+        for (int depth = 0; depth < MAX_HEIGHT && searcher != null && !isNil(searcher); depth++) {
+            final Node<E> left = searcher.getLeft();
+            if (left == null) {
+                return null;
+            }
+            final int leftSize = left.getSize();
+            if (index == leftSize) {
+                return searcher.getValue();
+            } else if (index < leftSize) {
+                searcher = left;
+            } else {
+                index -= leftSize + 1;
+                searcher = searcher.getRight();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies the values in order into the array without trusting the tree to be in a consistent state,
+     * for readers which may race a writer and check afterwards whether one ran
+     * The walk gives up instead of failing when it finds a broken link, goes deeper than any tree can be
+     * or finds a different number of values than the array holds
+     * Takes O(N)
+     * @param into the array to fill, as long as the size of the tree
+     * @return true if the array was filled, false if the walk gave up
+     */
+    @Override
+    public boolean peekAll(final Object[] into) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Node<E>[] path = new Node[MAX_HEIGHT];
+        int depth = 0;
+        int count = 0;
+        Node<E> node = root;
+        while (node != null) {
+            if (!isNil(node)) {
+                if (depth == MAX_HEIGHT) {
+                    return false;
+                }
+                path[depth++] = node;
+                node = node.getLeft();
+            } else if (depth == 0) {
+                return count == into.length;
+            } else {
+                if (count == into.length) {
+                    return false;
+                }
+                node = path[--depth];
+                into[count++] = node.getValue();
+                node = node.getRight();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies the values from the given index on into the array without trusting the tree to be in a consistent state,
+     * for readers which may race a writer and check afterwards whether one ran
+     * The nodes after the first value are kept on a path on the way down, and the walk gives up instead of failing
+     * when it finds a broken link, goes deeper than any tree can be or runs out of values
+     * Takes O(logN + K) for K values
+     * @param from the index of the first value
+     * @param into the array to fill, no longer than the values from the index on
+     * @return true if the array was filled, false if the walk gave up
+     */
+    @Override
+    public boolean peekRange(final int from, final Object[] into) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Node<E>[] path = new Node[MAX_HEIGHT];
+        int depth = 0;
+        int index = from;
+        Node<E> node = root;
+        for (int steps = 0; ; steps++) {
+            if (steps == MAX_HEIGHT || node == null || isNil(node)) {
+                return false;
+            }
+            final Node<E> left = node.getLeft();
+            if (left == null) {
+                return false;
+            }
+            final int leftSize = left.getSize();
+            if (index <= leftSize) {
+                path[depth++] = node;
+                if (index == leftSize) {
+                    break;
+                }
+                node = left;
+            } else {
+                index -= leftSize + 1;
+                node = node.getRight();
+            }
+        }
+        for (int count = 0; count < into.length; count++) {
+            if (depth == 0) {
+                return false;
+            }
+            node = path[--depth];
+            into[count] = node.getValue();
+            for (node = node.getRight(); node != null && !isNil(node); node = node.getLeft()) {
+                if (depth == MAX_HEIGHT) {
+                    return false;
+                }
+                path[depth++] = node;
+            }
+            if (node == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Replaces subtree rooted at node u with subtree rooted at node v and node u's parent becomes node v's
      * parent
@@ -318,16 +894,16 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
      * @param v Node which will be used for replacement
      */
     private void transplant(Node<E> u, Node<E> v) {
-        if (u.getParent() == nil) {
+        if (isNil(u.getParent())) {
             root = v;
         } else if (u == u.getParent().getLeft()) {
             u.getParent().setLeft(v);
-            u.getParent().setLeftChildren(getSizeAtNode(v));
         } else {
             u.getParent().setRight(v);
-            u.getParent().setRightChildren(getSizeAtNode(v));
         }
-        v.setParent(u.getParent());
+        if (!isNil(v)) {
+            v.setParent(u.getParent());
+        }
     }
 
     /**
@@ -342,6 +918,51 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
         return node;
     }
 
+    /**
+     * Gets the node which comes after the given node in index order
+     * @param node the node to start from
+     * @return the next node or nil if node is the last one
+     */
+    Node<E> successor(Node<E> node) {
+        if (!isNil(node.getRight())) {
+            return getMinimumNode(node.getRight());
+        }
+        while (!isNil(node.getParent()) && node == node.getParent().getRight()) {
+            node = node.getParent();
+        }
+        return node.getParent();
+    }
+
+    /**
+     * Gets the node which comes before the given node in index order
+     * @param node the node to start from, or nil to get the last node
+     * @return the previous node or nil if node is the first one
+     */
+    Node<E> predecessor(Node<E> node) {
+        if (isNil(node)) {
+            return getMaximumNode(root);
+        }
+        if (!isNil(node.getLeft())) {
+            return getMaximumNode(node.getLeft());
+        }
+        while (!isNil(node.getParent()) && node == node.getParent().getLeft()) {
+            node = node.getParent();
+        }
+        return node.getParent();
+    }
+
+    /**
+     * Gets the maximum node by index from the given node
+     * @param node the node from where to find the maximum node
+     * @return the node with the greatest index from the given node
+     */
+    private Node<E> getMaximumNode(Node<E> node) {
+        while (!isNil(node) && !isNil(node.getRight())) {
+            node = node.getRight();
+        }
+        return node;
+    }
+
 
     /**
      * Deletes an element at the given index and updates the remaining indexes
@@ -350,15 +971,30 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
      */
     @Override
     public Node<E> delete(final int index) {
-        Node<E> toDelete = get(index);
+        return delete(get(index));
+    }
+
+    /**
+     * Deletes the given node from the tree and updates the remaining indexes
+     * The other nodes keep their values, so references to them stay valid
+     * The deleted node is unlinked so it can no longer be found by getRank
+     * @param toDelete the node to delete, which must be in this tree
+     * @return The node which was deleted
+     */
+    @Override
+    public Node<E> delete(final Node<E> toDelete) {
+        unindex(toDelete);
         Node<E> y = toDelete;
         Node.Color yColor = y.getColor(); //saving original color to test at the end
         Node<E> x;
+        Node<E> xParent; //kept apart from x as x can be the shared nil node
         if (isNil(toDelete.getLeft())) {
             x = toDelete.getRight();
+            xParent = toDelete.getParent();
             transplant(toDelete, toDelete.getRight());
         } else if (isNil(toDelete.getRight())) {
             x = toDelete.getLeft();
+            xParent = toDelete.getParent();
             transplant(toDelete, toDelete.getLeft());
         } else {
             y = getMinimumNode(toDelete.getRight());
@@ -366,24 +1002,33 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
             yColor = y.getColor();
             x = y.getRight();
             if (y.getParent() == toDelete) {
-                x.setParent(y);
+                xParent = y;
             } else {
+                xParent = y.getParent();
                 transplant(y, y.getRight());
                 y.setRight(toDelete.getRight());
-                y.setRightChildren(getSizeAtNode(toDelete.getRight()));
                 y.getRight().setParent(y);
             }
             transplant(toDelete, y);
             y.setLeft(toDelete.getLeft());
-            y.setLeftChildren(getSizeAtNode(toDelete.getLeft()));
             y.getLeft().setParent(y);
             y.setColor(toDelete.getColor());
+            //y has taken over the subtree of the deleted node, and loses a node below like the rest
+            y.setSize(toDelete.getSize());
+        }
+        //every node from where x now hangs up to the root has lost a node
+        for (Node<E> node = xParent; !isNil(node); node = node.getParent()) {
+            node.setSize(node.getSize() - 1);
         }
         if (yColor == Node.Color.BLACK) {
             //if color is black then moving around y or removing y could cause violations
             // of red black property
-            deleteFix(x);
+            deleteFix(x, xParent);
         }
+        toDelete.setParent(null);
+        toDelete.setLeft(null);
+        toDelete.setRight(null);
+        modCount++;
 
         return toDelete;
     }
@@ -392,106 +1037,275 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
     /**
      * Deleting an element from the tree can cause several violations of the red-black
      * properties which need to be fixed
-     * @param x the node that was deleted
+     * @param x the node that took the place of the deleted node
+     * @param parent the parent of x
      */
-    private void deleteFix(Node<E> x) {
+    private void deleteFix(Node<E> x, Node<E> parent) {
         Node<E> w;
         while (x != root && x.getColor() == Node.Color.BLACK) {
-            if (x == x.getParent().getLeft()) {
-                w = x.getParent().getRight();
+            if (x == parent.getLeft()) {
+                w = parent.getRight();
                 if (w.getColor() == Node.Color.RED) {
                     //case 1
                     w.setColor(Node.Color.BLACK);
-                    x.getParent().setColor(Node.Color.RED);
-                    leftRotate(x.getParent());
-                    w = x.getParent().getRight();
+                    parent.setColor(Node.Color.RED);
+                    leftRotate(parent);
+                    w = parent.getRight();
                 }
                 if (w.getLeft().getColor() == Node.Color.BLACK &&
                         w.getRight().getColor() == Node.Color.BLACK) {
                     //case 2
                     w.setColor(Node.Color.RED);
-                    x = x.getParent();
-                } else if (w.getRight().getColor() == Node.Color.BLACK) {
-                    //case 3
-                    w.getLeft().setColor(Node.Color.BLACK);
-                    w.setColor(Node.Color.RED);
-                    rightRotate(w);
-                    w = x.getParent().getRight();
+                    x = parent;
+                    parent = x.getParent();
+                } else {
+                    if (w.getRight().getColor() == Node.Color.BLACK) {
+                        //case 3
+                        w.getLeft().setColor(Node.Color.BLACK);
+                        w.setColor(Node.Color.RED);
+                        rightRotate(w);
+                        w = parent.getRight();
+                    }
+                    //case 4
+                    w.setColor(parent.getColor());
+                    parent.setColor(Node.Color.BLACK);
+                    w.getRight().setColor(Node.Color.BLACK);
+                    leftRotate(parent);
+                    x = root;
                 }
-                //case 4
-                w.setColor(x.getParent().getColor());
-                x.getParent().setColor(Node.Color.BLACK);
-                w.getRight().setColor(Node.Color.BLACK);
-                leftRotate(x.getParent());
-                x = root;
-
             } else {
                 //right left interchanged
-                w = x.getParent().getLeft();
+                w = parent.getLeft();
                 if (w.getColor() == Node.Color.RED) {
                     //case 1
                     w.setColor(Node.Color.BLACK);
-                    x.getParent().setColor(Node.Color.RED);
-                    rightRotate(x.getParent());
-                    w = x.getParent().getLeft();
+                    parent.setColor(Node.Color.RED);
+                    rightRotate(parent);
+                    w = parent.getLeft();
                 }
                 if (w.getRight().getColor() == Node.Color.BLACK &&
-                        w.getLeft().getColor() == Node.Color.RED) {
+                        w.getLeft().getColor() == Node.Color.BLACK) {
                     //case 2
                     w.setColor(Node.Color.RED);
-                    x = x.getParent();
-                } else if (w.getLeft().getColor() == Node.Color.BLACK) {
-                    //case 3
-                    w.getRight().setColor(Node.Color.BLACK);
-                    w.setColor(Node.Color.RED);
-                    leftRotate(w);
-                    w = x.getParent().getLeft();
+                    x = parent;
+                    parent = x.getParent();
+                } else {
+                    if (w.getLeft().getColor() == Node.Color.BLACK) {
+                        //case 3
+                        w.getRight().setColor(Node.Color.BLACK);
+                        w.setColor(Node.Color.RED);
+                        leftRotate(w);
+                        w = parent.getLeft();
+                    }
+                    //case 4
+                    w.setColor(parent.getColor());
+                    parent.setColor(Node.Color.BLACK);
+                    w.getLeft().setColor(Node.Color.BLACK);
+                    rightRotate(parent);
+                    x = root;
                 }
-                //case 4
-                w.setColor(x.getParent().getColor());
-                x.getParent().setColor(Node.Color.BLACK);
-                w.getLeft().setColor(Node.Color.BLACK);
-                rightRotate(x.getParent());
-                x = root;
             }
         }
-        x.setColor(Node.Color.BLACK);
+        if (!isNil(x)) {
+            x.setColor(Node.Color.BLACK);
+        }
     }
 
     /**
      * Finds the first node with the given value and returns its index
+     * Takes O(logN) per node holding the value when values are indexed, otherwise O(N)
      * @param value the value to search for
      * @return index of the node with the value or -1
      */
-    public int getIndex(E value) {
-        Node<E> current = root;
-        int indexesVisited = -1;
-        //stack to keep track of the nodes to visit to find the value
-        Stack<Node<E>> stack = new Stack<>();
-
-        while (!isNil(current)){
-            stack.push(current);
-            current = current.getLeft();
+    @Override
+    public int getIndex(Object value) {
+        if (valueIndex != null) {
+            Set<Node<E>> nodes = valueIndex.get(value);
+            if (nodes == null) {
+                return -1;
+            }
+            int index = Integer.MAX_VALUE;
+            for (Node<E> node : nodes) {
+                index = Math.min(index, getRank(node));
+            }
+            return index;
+        }
+        if (TreeListMetrics.ENABLED && metrics != null) {
+            metrics.recordScan();
+        }
+        int index = 0;
+        for (Node<E> node = getMinimumNode(root); !isNil(node); node = successor(node)) {
+            if (value.equals(node.getValue())) {
+                return index;
+            }
+            index++;
         }
+        return -1;
+    }
 
-        //traversing the tree
-        while(stack.size() > 0){
-            current = stack.pop();
-            indexesVisited++;
-            if (value == current.getValue()){
-                return indexesVisited;
+    /**
+     * Finds the last node with the given value and returns its index
+     * Takes O(logN) per node holding the value when values are indexed,
+     * otherwise O(N) walking back from the end
+     * @param value the value to search for
+     * @return index of the last node with the value or -1
+     */
+    @Override
+    public int getLastIndex(Object value) {
+        if (valueIndex != null) {
+            Set<Node<E>> nodes = valueIndex.get(value);
+            if (nodes == null) {
+                return -1;
             }
-            if (!isNil(current.getRight())){
-                current = current.getRight();
-                while (!isNil(current)){
-                    stack.push(current);
-                    current = current.getLeft();
-                }
+            int index = -1;
+            for (Node<E> node : nodes) {
+                index = Math.max(index, getRank(node));
+            }
+            return index;
+        }
+        if (TreeListMetrics.ENABLED && metrics != null) {
+            metrics.recordScan();
+        }
+        int index = size() - 1;
+        for (Node<E> node = getMaximumNode(root); !isNil(node); node = predecessor(node)) {
+            if (value.equals(node.getValue())) {
+                return index;
             }
+            index--;
         }
         return -1;
     }
 
+    /**
+     * Returns if a node holds the given value
+     * Takes O(1) when values are indexed, otherwise O(N)
+     * @param value the value to search for
+     * @return true if the value is in the tree
+     */
+    @Override
+    public boolean contains(Object value) {
+        if (valueIndex != null) {
+            return valueIndex.containsKey(value);
+        }
+        return getIndex(value) != -1;
+    }
+
+    /**
+     * Returns the index of the given node by climbing to the root and adding up
+     * the sizes of the left subtrees passed on the way
+     * Takes O(logN)
+     * @param node the node to find
+     * @return the index of the node or -1 if it is not in this tree
+     */
+    @Override
+    public int getRank(Node<E> node) {
+        if (node.getParent() == null) {
+            //the node has been deleted
+            return -1;
+        }
+        int rank = node.getLeftChildren();
+        while (!isNil(node.getParent())) {
+            if (node == node.getParent().getRight()) {
+                rank += node.getParent().getLeftChildren() + 1;
+            }
+            node = node.getParent();
+        }
+        return node == root ? rank : -1;
+    }
+
+    /**
+     * Returns the number of values which come before the given value in the order of the comparator,
+     * which the values of the tree must already be sorted by
+     * Takes O(logN) as it goes down from the root once, adding up the left subtrees it passes
+     * @param value the value to rank
+     * @param comparator the order of the values
+     * @param inclusive true to count the values equal to the given one as well
+     * @return the index of the first value greater than, or greater than or equal to, the given value
+     */
+    public int getRank(final E value, final Comparator<? super E> comparator, final boolean inclusive) {
+        int rank = 0;
+        Node<E> node = root;
+        while (!isNil(node)) {
+            final int comparison = comparator.compare(node.getValue(), value);
+            if (comparison < 0 || inclusive && comparison == 0) {
+                rank += node.getLeftChildren() + 1;
+                node = node.getRight();
+            } else {
+                node = node.getLeft();
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Turns the index from values to the nodes holding them on or off
+     * The index is kept up to date by every change to the tree, which makes
+     * getIndex, getLastIndex and contains sublinear at the cost of a hash map entry per node
+     * Splitting, joining and range deletes then take O(K) for the K nodes moved or removed
+     * Values must not change their hash code while they are in the tree
+     * Building the index takes O(N)
+     * @param indexed true to index the values
+     */
+    @Override
+    public void setValueIndexed(final boolean indexed) {
+        if (!indexed) {
+            valueIndex = null;
+        } else if (valueIndex == null) {
+            valueIndex = new HashMap<>();
+            indexSubtree(root, true);
+        }
+    }
+
+    /**
+     * Returns if values are indexed
+     * @return true if values are indexed
+     */
+    @Override
+    public boolean isValueIndexed() {
+        return valueIndex != null;
+    }
+
+    /**
+     * Adds the node to the value index if values are indexed
+     * @param node the node to add
+     */
+    private void index(final Node<E> node) {
+        if (valueIndex != null) {
+            valueIndex.computeIfAbsent(node.getValue(), value -> new HashSet<>()).add(node);
+        }
+    }
+
+    /**
+     * Removes the node from the value index if values are indexed
+     * @param node the node to remove
+     */
+    private void unindex(final Node<E> node) {
+        if (valueIndex != null) {
+            Set<Node<E>> nodes = valueIndex.get(node.getValue());
+            if (nodes != null && nodes.remove(node) && nodes.isEmpty()) {
+                valueIndex.remove(node.getValue());
+            }
+        }
+    }
+
+    /**
+     * Adds or removes every node of the subtree to or from the value index if values are indexed
+     * @param node the root of the subtree
+     * @param add true to add the nodes, false to remove them
+     */
+    private void indexSubtree(final Node<E> node, final boolean add) {
+        if (valueIndex == null || isNil(node)) {
+            return;
+        }
+        indexSubtree(node.getLeft(), add);
+        if (add) {
+            index(node);
+        } else {
+            unindex(node);
+        }
+        indexSubtree(node.getRight(), add);
+    }
+
     /**
      * Sets the value of the node at the given index with the given value
      * Takes O(logN) to do
@@ -501,10 +1315,185 @@ public class RedBlackTree<E> implements com.list.structure.interfaces.RedBlackTr
      */
     @Override
     public E set(final int index, final E value){
-        Node<E> node = get(index);
+        return set(get(index), value);
+    }
+
+    /**
+     * Sets the value of the given node, keeping the value index up to date
+     * @param node the node to change, which must be in this tree
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     */
+    @Override
+    public E set(final Node<E> node, final E value) {
+        unindex(node);
         E valReturn = node.getValue();
         node.setValue(value);
+        index(node);
         return valReturn;
     }
 
+    /**
+     * Returns the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    @Override
+    public E getValue(final int index) {
+        return get(index).getValue();
+    }
+
+    /**
+     * Inserts the value at the given index
+     * Takes O(logN)
+     * @param index the location where to insert the value
+     * @param value the value to store
+     */
+    @Override
+    public void add(final int index, final E value) {
+        insert(index, value);
+    }
+
+    /**
+     * Inserts the value at the end of the tree
+     * Takes O(logN)
+     * @param value the value to store
+     */
+    @Override
+    public void add(final E value) {
+        insert(value);
+    }
+
+    /**
+     * Removes the value at the given index
+     * Takes O(logN)
+     * @param index the index of the value to remove
+     * @return the value which was removed
+     */
+    @Override
+    public E remove(final int index) {
+        return delete(index).getValue();
+    }
+
+    /**
+     * Performs the action on every value in order, stepping from each node to its successor
+     * Takes O(N) without allocating, and fails fast if the action changes the tree structurally
+     * @param action the action
+     */
+    @Override
+    public void forEach(final Consumer<? super E> action) {
+        final int expectedModCount = modCount;
+        Node<E> node = getMinimumNode(root);
+        while (!isNil(node)) {
+            action.accept(node.getValue());
+            checkForComodification(expectedModCount);
+            node = successor(node);
+        }
+    }
+
+    /**
+     * Copies the values in order into the given array, stepping from each node to its successor
+     * Takes O(N) without allocating
+     * @param target the array to copy into, holding at least size() values
+     */
+    @Override
+    public void copyTo(final Object[] target) {
+        int index = 0;
+        for (Node<E> node = getMinimumNode(root); !isNil(node); node = successor(node)) {
+            target[index++] = node.getValue();
+        }
+    }
+
+    /**
+     * Replaces every value with the result of the operator, stepping from each node to its successor
+     * Takes O(N) without allocating, and fails fast if the operator changes the tree structurally
+     * @param operator the operator to apply to each value
+     */
+    @Override
+    public void replaceAll(final UnaryOperator<E> operator) {
+        final int expectedModCount = modCount;
+        Node<E> node = getMinimumNode(root);
+        while (!isNil(node)) {
+            final E value = operator.apply(node.getValue());
+            checkForComodification(expectedModCount);
+            set(node, value);
+            node = successor(node);
+        }
+    }
+
+    /**
+     * Removes every value the filter matches, testing each value once and in order
+     * The tree is left untouched until every value has been tested, then the surviving nodes
+     * are linked into a balanced tree like load does, which takes O(N) however many are removed
+     * The survivors are the same nodes as before, so references to them stay valid,
+     * and the removed nodes are unlinked like delete does
+     * @param filter the filter picking the values to remove
+     * @return true if any value was removed
+     */
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public boolean removeIf(final Predicate<? super E> filter) {
+        final int size = size();
+        final int expectedModCount = modCount;
+        //survivors are gathered from the front and removed nodes from the back
+        final Node<E>[] nodes = (Node<E>[]) new Node[size];
+        int kept = 0;
+        int removed = size;
+        Node<E> node = getMinimumNode(root);
+        while (!isNil(node)) {
+            final boolean remove = filter.test(node.getValue());
+            checkForComodification(expectedModCount);
+            if (remove) {
+                nodes[--removed] = node;
+            } else {
+                nodes[kept++] = node;
+            }
+            node = successor(node);
+        }
+        if (removed == size) {
+            return false;
+        }
+        for (int i = removed; i < size; i++) {
+            unindex(nodes[i]);
+            nodes[i].setParent(null);
+            nodes[i].setLeft(null);
+            nodes[i].setRight(null);
+        }
+        root = detach(relink(nodes, 0, kept, 0, getRedDepth(kept)));
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Checks that the tree has not been structurally changed by a callback
+     * @param expectedModCount the modification count before the callback
+     * @throws ConcurrentModificationException if it has
+     */
+    private void checkForComodification(final int expectedModCount) throws ConcurrentModificationException {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns an in order iterator which walks the nodes
+     * It fails fast if the tree is structurally changed
+     * @return Iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new RBIterator<>(this);
+    }
+
+    /**
+     * Returns a list iterator which walks the nodes, stepping in amortized O(1)
+     * @param index the index of the first element to be returned by next
+     * @return ListIterator
+     */
+    @Override
+    public ListIterator<E> listIterator(final int index) {
+        return new RBListIterator<>(this, index);
+    }
+
 }
@@ -0,0 +1,476 @@
+package com.list.structure;
+
+import com.list.structure.interfaces.PositionalTree;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Randomized treap keeping the values in order by the sizes of the subtrees
+ * Every node draws a random priority and sits above all nodes of lower priority, which keeps
+ * the tree about 3 logN high on average whatever order the values come in
+ * There are no colours or heights to repair, so splitting at an index and joining two treaps
+ * are a single walk down the tree each, and a range is deleted by splitting it off and joining the ends
+ * Nodes have no parent pointers and are not handed out as handles
+ */
+public class Treap<E> implements PositionalTree<E> {
+    private TreapNode<E> root; //null when the tree is empty
+    private int modCount = 0; //number of structural changes, used by iterators to fail fast
+    private final SplittableRandom random;
+    //the two halves of the last split, as the split returns both
+    private TreapNode<E> splitLeft;
+    private TreapNode<E> splitRight;
+    private E removed; //value taken out by the last remove
+
+    /**
+     * Constructor to initialize the structure with random priorities
+     */
+    public Treap() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructor to initialize the structure with priorities drawn from the given seed,
+     * so the shape of the tree can be reproduced
+     * @param seed the seed of the priorities
+     */
+    public Treap(final long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private Treap(final SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Node of the tree, which holds its priority and the size of its subtree
+     */
+    private static final class TreapNode<E> {
+        private E value;
+        private final int priority;
+        private TreapNode<E> left;
+        private TreapNode<E> right;
+        private int size = 1;
+
+        TreapNode(final E value, final int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Returns the number of elements in the tree
+     * @return the size of the tree
+     */
+    @Override
+    public int size() {
+        return sizeOf(root);
+    }
+
+    /**
+     * Returns if the tree is empty
+     * @return true if the tree is empty
+     */
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Clears the tree
+     */
+    @Override
+    public void clear() {
+        root = null;
+        modCount++;
+    }
+
+    /**
+     * Returns the number of structural changes made to the tree
+     * @return the modification count
+     */
+    @Override
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Returns the value at the given index
+     * Takes O(logN) on average
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    @Override
+    public E getValue(final int index) {
+        return get(index).value;
+    }
+
+    /**
+     * Sets the value at the given index
+     * Takes O(logN) on average
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     */
+    @Override
+    public E set(final int index, final E value) {
+        final TreapNode<E> node = get(index);
+        final E valReturn = node.value;
+        node.value = value;
+        return valReturn;
+    }
+
+    /**
+     * Returns the node at the given index
+     * @param index the index of the node
+     * @return the node at the index
+     */
+    private TreapNode<E> get(int index) {
+        TreapNode<E> node = root;
+        while (true) {
+            final int leftSize = sizeOf(node.left);
+            if (index == leftSize) {
+                return node;
+            } else if (index < leftSize) {
+                node = node.left;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Inserts the value at the given index
+     * Takes O(logN) on average
+     * @param index the location where to insert the value
+     * @param value the value to store
+     */
+    @Override
+    public void add(final int index, final E value) {
+        root = insert(root, index, new TreapNode<>(value, random.nextInt()));
+        modCount++;
+    }
+
+    /**
+     * Inserts the value at the end of the tree
+     * Takes O(logN) on average
+     * @param value the value to store
+     */
+    @Override
+    public void add(final E value) {
+        add(size(), value);
+    }
+
+    /**
+     * Removes the value at the given index
+     * Takes O(logN) on average
+     * @param index the index of the value to remove
+     * @return the value which was removed
+     */
+    @Override
+    public E remove(final int index) {
+        root = delete(root, index);
+        modCount++;
+        final E value = removed;
+        removed = null;
+        return value;
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values in order
+     * The middle value of every range becomes its root and the priorities are then sifted down
+     * like in building a binary heap, which takes O(N)
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void load(final List<? extends E> values) {
+        root = build(values, 0, values.size());
+        modCount++;
+    }
+
+    /**
+     * Inserts all the values at the given index in their order
+     * An empty tree is built in O(K), otherwise the values are added one at a time
+     * @param index the location where to insert the values
+     * @param values the values to store, which should have constant time positional access
+     */
+    @Override
+    public void insertAll(final int index, final List<? extends E> values) {
+        if (isEmpty()) {
+            load(values);
+        } else {
+            PositionalTree.super.insertAll(index, values);
+        }
+    }
+
+    /**
+     * Splits the tree at the given index, keeping the elements before the index in this tree
+     * Takes O(logN) on average
+     * @param index the index of the first element to move
+     * @return a treap holding the elements from the index onwards
+     */
+    @Override
+    public Treap<E> split(final int index) {
+        split(root, index);
+        final Treap<E> other = new Treap<>(random.split());
+        root = splitLeft;
+        other.root = splitRight;
+        splitLeft = splitRight = null;
+        modCount++;
+        return other;
+    }
+
+    /**
+     * Joins the given treap to the end of this one, leaving it empty
+     * Takes O(logN) on average
+     * @param other the treap whose elements go after the elements of this treap
+     * @throws IllegalArgumentException if other is this treap or not a Treap
+     */
+    @Override
+    public void join(final PositionalTree<E> other) throws IllegalArgumentException {
+        if (other == this || !(other instanceof Treap)) {
+            throw new IllegalArgumentException("can only join a different Treap");
+        }
+        final Treap<E> treap = (Treap<E>) other;
+        root = merge(root, treap.root);
+        treap.clear();
+        modCount++;
+    }
+
+    /**
+     * Deletes the elements from fromIndex, inclusive, to toIndex, exclusive
+     * The range is split off and the two ends are joined back,
+     * which takes O(logN) on average however many elements are deleted
+     * @param fromIndex the index of the first element to delete
+     * @param toIndex the index after the last element to delete
+     */
+    @Override
+    public void deleteRange(final int fromIndex, final int toIndex) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+        split(root, toIndex);
+        final TreapNode<E> tail = splitRight;
+        split(splitLeft, fromIndex);
+        root = merge(splitLeft, tail);
+        splitLeft = splitRight = null;
+        modCount++;
+    }
+
+    /**
+     * Builds a balanced subtree from the values between from, inclusive, and to, exclusive
+     * Both children are heaps by priority when the node draws its own,
+     * so sifting the priority of the node down makes the subtree one as well
+     * @param values the values to store
+     * @param from the index of the first value
+     * @param to the index after the last value
+     * @return the root of the subtree or null if the range is empty
+     */
+    private TreapNode<E> build(final List<? extends E> values, final int from, final int to) {
+        if (from >= to) {
+            return null;
+        }
+        final int mid = (from + to) >>> 1;
+        final TreapNode<E> left = build(values, from, mid);
+        final TreapNode<E> right = build(values, mid + 1, to);
+        TreapNode<E> node = new TreapNode<>(values.get(mid), random.nextInt());
+        node.left = left;
+        node.right = right;
+        node.size = to - from;
+        return siftDown(node);
+    }
+
+    /**
+     * Rotates the node down below its children until none has a higher priority
+     * @param node the root of the subtree, whose children are heaps by priority
+     * @return the new root of the subtree
+     */
+    private TreapNode<E> siftDown(final TreapNode<E> node) {
+        final TreapNode<E> left = node.left;
+        final TreapNode<E> right = node.right;
+        if (left != null && left.priority > node.priority && (right == null || left.priority >= right.priority)) {
+            node.left = left.right;
+            update(node);
+            left.right = siftDown(node);
+            update(left);
+            return left;
+        } else if (right != null && right.priority > node.priority) {
+            node.right = right.left;
+            update(node);
+            right.left = siftDown(node);
+            update(right);
+            return right;
+        }
+        return node;
+    }
+
+    /**
+     * Inserts the node into the subtree at the first level where its priority is the highest,
+     * splitting the subtree below that point between its two children
+     * @param node the root of the subtree
+     * @param index the index within the subtree
+     * @param toInsert the node to insert
+     * @return the root of the new subtree
+     */
+    private TreapNode<E> insert(final TreapNode<E> node, final int index, final TreapNode<E> toInsert) {
+        if (node == null) {
+            return toInsert;
+        }
+        if (toInsert.priority > node.priority) {
+            split(node, index);
+            toInsert.left = splitLeft;
+            toInsert.right = splitRight;
+            splitLeft = splitRight = null;
+            update(toInsert);
+            return toInsert;
+        }
+        final int leftSize = sizeOf(node.left);
+        if (index <= leftSize) {
+            node.left = insert(node.left, index, toInsert);
+        } else {
+            node.right = insert(node.right, index - leftSize - 1, toInsert);
+        }
+        node.size++;
+        return node;
+    }
+
+    /**
+     * Deletes the value at the index from the subtree, keeping it in removed,
+     * by merging the two children of its node in its place
+     * @param node the root of the subtree
+     * @param index the index within the subtree
+     * @return the root of the new subtree or null if it is empty
+     */
+    private TreapNode<E> delete(final TreapNode<E> node, final int index) {
+        final int leftSize = sizeOf(node.left);
+        if (index == leftSize) {
+            removed = node.value;
+            return merge(node.left, node.right);
+        }
+        if (index < leftSize) {
+            node.left = delete(node.left, index);
+        } else {
+            node.right = delete(node.right, index - leftSize - 1);
+        }
+        node.size--;
+        return node;
+    }
+
+    /**
+     * Splits the subtree into the nodes before the index, left in splitLeft,
+     * and the nodes from the index onwards, left in splitRight
+     * @param node the root of the subtree
+     * @param index the index within the subtree of the first node to go right
+     */
+    private void split(final TreapNode<E> node, final int index) {
+        if (node == null) {
+            splitLeft = splitRight = null;
+            return;
+        }
+        final int leftSize = sizeOf(node.left);
+        if (index <= leftSize) {
+            split(node.left, index);
+            node.left = splitRight;
+            update(node);
+            splitRight = node;
+        } else {
+            split(node.right, index - leftSize - 1);
+            node.right = splitLeft;
+            update(node);
+            splitLeft = node;
+        }
+    }
+
+    /**
+     * Merges two subtrees, every node of the left one coming before every node of the right one
+     * @param left the subtree holding the first values
+     * @param right the subtree holding the last values
+     * @return the root of the merged subtree
+     */
+    private TreapNode<E> merge(final TreapNode<E> left, final TreapNode<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    /**
+     * Recomputes the size of the node from its children
+     * @param node the node to update
+     */
+    private static <E> void update(final TreapNode<E> node) {
+        node.size = sizeOf(node.left) + sizeOf(node.right) + 1;
+    }
+
+    private static int sizeOf(final TreapNode<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns an in order iterator which keeps the path to the next node on a stack
+     * Each step takes amortized O(1) and it fails fast if the tree is structurally changed
+     * @return Iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new PathIterator();
+    }
+
+    /**
+     * In order iterator which keeps the path to the next node on a stack, as nodes have no parents
+     * The stack grows in the rare case the treap is deeper than it expected
+     */
+    private final class PathIterator implements Iterator<E> {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private TreapNode<E>[] path = new TreapNode[64];
+        private int depth;
+        private final int expectedModCount = modCount;
+
+        PathIterator() {
+            pushLeftSpine(root);
+        }
+
+        private void pushLeftSpine(TreapNode<E> node) {
+            for (; node != null; node = node.left) {
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                path[depth++] = node;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth > 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final TreapNode<E> node = path[--depth];
+            path[depth] = null;
+            pushLeftSpine(node.right);
+            return node.value;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.list.structure.interfaces;
+
+import com.list.structure.PositionalListIterator;
+import com.list.structure.PositionalSpliterator;
+import com.list.stats.TreeListMetrics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * The interface for the storage engines behind a TreeList
+ * An engine keeps values in order and gives access to them by their index
+ * Callers check indexes and reject nulls, so engines can assume valid arguments
+ */
+public interface PositionalTree<E> extends Iterable<E> {
+
+    /**
+     * Returns the number of elements in the tree
+     * @return the size of the tree
+     */
+    int size();
+
+    /**
+     * Returns if the tree is empty
+     * @return true if the tree is empty
+     */
+    boolean isEmpty();
+
+    /**
+     * Clears the tree
+     */
+    void clear();
+
+    /**
+     * Returns the number of structural changes made to the tree,
+     * which iterators and views use to detect changes made behind their backs
+     * @return the modification count
+     */
+    int getModCount();
+
+    /**
+     * Returns the value at the given index
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    E getValue(final int index);
+
+    /**
+     * Sets the value at the given index
+     * @param index the index of the value
+     * @param value the value with which to replace with
+     * @return the Value that was replaced
+     */
+    E set(final int index, final E value);
+
+    /**
+     * Inserts the value at the given index
+     * @param index the location where to insert the value
+     * @param value the value to store
+     */
+    void add(final int index, final E value);
+
+    /**
+     * Inserts the value at the end of the tree
+     * @param value the value to store
+     */
+    void add(final E value);
+
+    /**
+     * Removes the value at the given index and updates the remaining indexes
+     * @param index the index of the value to remove
+     * @return the value which was removed
+     */
+    E remove(final int index);
+
+    /**
+     * Inserts all the values at the given index in their order
+     * Adds them one at a time unless the engine has a faster way
+     * @param index the location where to insert the values
+     * @param values the values to store, which should have constant time positional access
+     */
+    default void insertAll(final int index, final List<? extends E> values) {
+        for (int i = 0; i < values.size(); i++) {
+            add(index + i, values.get(i));
+        }
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values in order
+     * @param values the values to store, which should have constant time positional access
+     */
+    default void load(final List<? extends E> values) {
+        clear();
+        insertAll(0, values);
+    }
+
+    /**
+     * Deletes the elements from fromIndex, inclusive, to toIndex, exclusive
+     * Removes them one at a time unless the engine has a faster way
+     * @param fromIndex the index of the first element to delete
+     * @param toIndex the index after the last element to delete
+     */
+    default void deleteRange(final int fromIndex, final int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            remove(fromIndex);
+        }
+    }
+
+    /**
+     * Copies the values in order into the given array
+     * Walks the iterator unless the engine has a faster way
+     * @param target the array to copy into, holding at least size() values
+     */
+    default void copyTo(final Object[] target) {
+        int index = 0;
+        for (E value : this) {
+            target[index++] = value;
+        }
+    }
+
+    /**
+     * Removes every value the filter matches, testing each value once and in order
+     * The survivors are gathered and loaded back unless the engine has a faster way
+     * @param filter the filter picking the values to remove
+     * @return true if any value was removed
+     */
+    default boolean removeIf(final Predicate<? super E> filter) {
+        final List<E> survivors = new ArrayList<>(size());
+        for (E value : this) {
+            if (!filter.test(value)) {
+                survivors.add(value);
+            }
+        }
+        if (survivors.size() == size()) {
+            return false;
+        }
+        load(survivors);
+        return true;
+    }
+
+    /**
+     * Replaces every value with the result of the operator, which must not be null
+     * Steps through the list iterator unless the engine has a faster way
+     * @param operator the operator to apply to each value
+     */
+    default void replaceAll(final UnaryOperator<E> operator) {
+        final ListIterator<E> values = listIterator(0);
+        while (values.hasNext()) {
+            values.set(operator.apply(values.next()));
+        }
+    }
+
+    /**
+     * Splits the tree at the given index, keeping the elements before the index in this tree
+     * This is an optional operation
+     * @param index the index of the first element to move
+     * @return a tree holding the elements from the index onwards
+     * @throws UnsupportedOperationException if the engine cannot split
+     */
+    default PositionalTree<E> split(final int index) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("split is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Joins the given tree to the end of this one, leaving it empty
+     * This is an optional operation
+     * @param other the tree whose elements go after the elements of this tree
+     * @throws UnsupportedOperationException if the engine cannot join
+     */
+    default void join(final PositionalTree<E> other) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("join is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Returns a copy of the tree, so that later changes to either tree do not show in the other
+     * This is an optional operation
+     * @return the copy
+     * @throws UnsupportedOperationException if the engine cannot take snapshots
+     */
+    default PositionalTree<E> snapshot() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("snapshot is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Finds the first element with the given value and returns its index
+     * @param value the value to search for
+     * @return index of the element with the value or -1
+     */
+    default int getIndex(Object value) {
+        int index = 0;
+        for (E element : this) {
+            if (element.equals(value)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the last element with the given value and returns its index
+     * @param value the value to search for
+     * @return index of the last element with the value or -1
+     */
+    default int getLastIndex(Object value) {
+        int index = 0;
+        int last = -1;
+        for (E element : this) {
+            if (element.equals(value)) {
+                last = index;
+            }
+            index++;
+        }
+        return last;
+    }
+
+    /**
+     * Returns if an element holds the given value
+     * @param value the value to search for
+     * @return true if the value is in the tree
+     */
+    default boolean contains(Object value) {
+        return getIndex(value) != -1;
+    }
+
+    /**
+     * Turns the index from values to their positions on or off
+     * This is an optional operation
+     * @param indexed true to index the values
+     * @throws UnsupportedOperationException if the engine cannot index values
+     */
+    default void setValueIndexed(final boolean indexed) throws UnsupportedOperationException {
+        if (indexed) {
+            throw new UnsupportedOperationException("value index is not supported by " + getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Returns if values are indexed
+     * @return true if values are indexed
+     */
+    default boolean isValueIndexed() {
+        return false;
+    }
+
+    /**
+     * Gives the engine the metrics of its list to record rotations and searches in
+     * Only called when metrics are enabled, and ignored by engines which do not record them
+     * @param metrics the metrics of the list
+     */
+    default void setMetrics(final TreeListMetrics metrics) {
+    }
+
+    /**
+     * Returns the number of nodes on the longest path from the root
+     * @return the height or -1 if the engine does not measure it
+     */
+    default int getHeight() {
+        return -1;
+    }
+
+    /**
+     * Returns an iterator over the values in order
+     * @return Iterator
+     */
+    @Override
+    Iterator<E> iterator();
+
+    /**
+     * Returns a list iterator which writes through to the tree and fails fast
+     * Steps by index unless the engine has a faster way
+     * @param index the index of the first element to be returned by next
+     * @return ListIterator
+     */
+    default ListIterator<E> listIterator(final int index) {
+        return new PositionalListIterator<>(this, index);
+    }
+
+    /**
+     * Returns a spliterator which splits at the middle index in O(1) and knows the exact size of both halves
+     * @return Spliterator
+     */
+    @Override
+    default Spliterator<E> spliterator() {
+        return new PositionalSpliterator<>(this, 0, size());
+    }
+}
@@ -4,22 +4,26 @@ import com.list.structure.Node;
 
 /**
  * The interface for the RedBlackTree
+ * On top of the positional operations it hands out the nodes holding the values
  * Created by Dhanish on 12 Feb,17.
  */
-public interface RedBlackTree<E> {
+public interface RedBlackTree<E> extends PositionalTree<E> {
 
     /**
      * Inserts the element at the given index
      * @param index the location where to insert the element
      * @param value the value to store
+     * @return the node holding the value
      */
-    void insert(final int index, final E value);
+    Node<E> insert(final int index, final E value);
 
     /**
      * Inserts the element at the end of the tree
      * @param value the value to store
+     * @return the node holding the value
      */
-    void insert(final E value);
+    Node<E> insert(final E value);
+
     /**
      * Returns the root of the tree
      * @return root of tree
@@ -27,15 +31,14 @@ public interface RedBlackTree<E> {
     Node<E> getRoot();
 
     /**
-     * Returns if the tree is empty
-     * @return true if the tree is empty
+     * Splits the tree at the given index, keeping the elements before the index in this tree
+     * The nodes from the index onwards are moved to the returned tree without copying
+     * Takes O(logN)
+     * @param index the index of the first element to move
+     * @return a tree holding the elements from the index onwards
      */
-    boolean isEmpty();
-
-    /**
-     * Clears the tree
-     */
-    void clear();
+    @Override
+    RedBlackTree<E> split(final int index);
 
     /**
      * Returns if the node is nil
@@ -53,6 +56,31 @@ public interface RedBlackTree<E> {
      */
     Node<E> get(final int index);
 
+    /**
+     * Returns the value at the index without trusting the tree to be in a consistent state,
+     * for readers which may race a writer and check afterwards whether one ran
+     * @param index the index of the value
+     * @return the value at the index or null if the walk gave up
+     */
+    E peek(final int index);
+
+    /**
+     * Copies the values in order into the array without trusting the tree to be in a consistent state,
+     * for readers which may race a writer and check afterwards whether one ran
+     * @param into the array to fill, as long as the size of the tree
+     * @return true if the array was filled, false if the walk gave up
+     */
+    boolean peekAll(final Object[] into);
+
+    /**
+     * Copies the values from the given index on into the array without trusting the tree to be
+     * in a consistent state, for readers which may race a writer and check afterwards whether one ran
+     * @param from the index of the first value
+     * @param into the array to fill, no longer than the values from the index on
+     * @return true if the array was filled, false if the walk gave up
+     */
+    boolean peekRange(final int from, final Object[] into);
+
     /**
      * Deletes an element at the given index and updates the remaining indexes
      * @param index index whose node needs to be deleted
@@ -61,18 +89,25 @@ public interface RedBlackTree<E> {
     Node<E> delete(final int index);
 
     /**
-     * Finds the node with the given value and returns its index
-     * @param value the value to search for
-     * @return index of the node with the value or -1
+     * Deletes the given node and updates the remaining indexes
+     * @param node the node to delete, which must be in this tree
+     * @return The node which was deleted
+     */
+    Node<E> delete(final Node<E> node);
+
+    /**
+     * Returns the index of the given node
+     * Takes O(logN)
+     * @param node the node to find
+     * @return the index of the node or -1 if it is not in this tree
      */
-    int getIndex(E value);
+    int getRank(final Node<E> node);
 
     /**
-     * Sets the value of the node at the given index with the given value
-     * Takes O(logN) to do
-     * @param index the index of the node
+     * Sets the value of the given node
+     * @param node the node to change, which must be in this tree
      * @param value the value with which to replace with
      * @return the Value that was replaced
      */
-    E set(final int index, final E value);
+    E set(final Node<E> node, final E value);
 }
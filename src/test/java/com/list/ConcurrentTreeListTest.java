@@ -0,0 +1,149 @@
+package com.list;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the thread safe list
+ */
+public class ConcurrentTreeListTest {
+
+    @Test
+    public void testListOperations() throws Exception {
+        ConcurrentTreeList<Integer> list = new ConcurrentTreeList<>(Arrays.asList(1, 2, 3));
+        list.add(4);
+        list.add(0, 0);
+        list.addAll(2, Arrays.asList(10, 11));
+        assertThat(list.set(2, 12)).isEqualTo(10);
+        assertThat(list.remove(3)).isEqualTo(11);
+        assertThat(list.remove((Object) 12)).isTrue();
+        assertThat(list).containsExactly(0, 1, 2, 3, 4);
+        assertThat(list.get(4)).isEqualTo(4);
+        assertThat(list.indexOf(3)).isEqualTo(3);
+        assertThat(list.contains(5)).isFalse();
+        assertThat(list.subList(1, 3)).containsExactly(1, 2);
+        assertThat(list).isEqualTo(Arrays.asList(0, 1, 2, 3, 4));
+        assertThatThrownBy(() -> list.get(5)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.add(null)).isInstanceOf(NullPointerException.class);
+
+        Iterator<Integer> iterator = list.iterator();
+        list.clear();
+        assertThat(list.isEmpty()).isTrue();
+        assertThat(iterator.next()).isEqualTo(0);
+        assertThatThrownBy(iterator::remove).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testBulkOperations() throws Exception {
+        ConcurrentTreeList<Integer> list = new ConcurrentTreeList<>(Arrays.asList(5, 1, 4, 2, 3, 6));
+        assertThat(list.removeIf(x -> x == 6)).isTrue();
+        assertThat(list.removeIf(x -> x == 7)).isFalse();
+        list.sort(null);
+        assertThat(list).containsExactly(1, 2, 3, 4, 5);
+        list.sort(Comparator.reverseOrder());
+        assertThat(list).containsExactly(5, 4, 3, 2, 1);
+        list.replaceAll(x -> x * 10);
+        assertThat(list).containsExactly(50, 40, 30, 20, 10);
+        assertThatThrownBy(() -> list.replaceAll(x -> null)).isInstanceOf(NullPointerException.class);
+        list.subList(0, 1).clear();
+        assertThat(list).containsExactly(40, 30, 20, 10);
+        assertThat(list.removeAll(Arrays.asList(30, 99))).isTrue();
+        assertThat(list.retainAll(Arrays.asList(10, 20, 40))).isFalse();
+        assertThat(list.retainAll(Arrays.asList(10))).isTrue();
+        assertThat(list).containsExactly(10);
+        assertThat(list.indexOf(10)).isEqualTo(0);
+    }
+
+    @Test
+    public void testIteratorWindows() throws Exception {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            expected.add(i);
+        }
+        ConcurrentTreeList<Integer> list = new ConcurrentTreeList<>(expected);
+        assertThat(list).containsExactlyElementsOf(expected);
+        assertThat(list.stream().findFirst()).contains(0);
+
+        ListIterator<Integer> iterator = list.listIterator(500);
+        for (int i = 499; i >= 0; i--) {
+            assertThat(iterator.previousIndex()).isEqualTo(i);
+            assertThat(iterator.previous()).isEqualTo(i);
+        }
+        assertThat(iterator.hasPrevious()).isFalse();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(iterator.next()).isEqualTo(i);
+        }
+        assertThat(iterator.hasNext()).isFalse();
+        assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(() -> list.listIterator(1001)).isInstanceOf(IndexOutOfBoundsException.class);
+
+        //the window read next sees the values which were removed since the last one
+        Iterator<Integer> windows = list.iterator();
+        assertThat(windows.next()).isEqualTo(0);
+        list.subList(0, 100).clear();
+        int count = 1;
+        while (windows.hasNext()) {
+            windows.next();
+            count++;
+        }
+        assertThat(count).isLessThan(1000);
+    }
+
+    @Test
+    public void testReadersRacingAWriter() throws Exception {
+        final int window = 1000;
+        final ConcurrentTreeList<Integer> list = new ConcurrentTreeList<>();
+        for (int i = 0; i < window; i++) {
+            list.add(i);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        //the writer slides a run of consecutive numbers along, readers check they only ever see such a run
+        Future<?> writer = executor.submit(() -> {
+            for (int i = window; i < window + 20000; i++) {
+                list.add(i);
+                list.remove(0);
+            }
+        });
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            readers.add(executor.submit(() -> {
+                while (!writer.isDone()) {
+                    Object[] elements = list.toArray();
+                    for (int i = 1; i < elements.length; i++) {
+                        assertThat((Integer) elements[i]).isEqualTo((Integer) elements[i - 1] + 1);
+                    }
+                    int previous = -1;
+                    for (int value : list) {
+                        assertThat(value).isGreaterThan(previous);
+                        previous = value;
+                    }
+                    int first = list.get(0);
+                    assertThat(list.get(window / 2)).isGreaterThanOrEqualTo(first + window / 2);
+                    assertThat(list.size()).isBetween(window, window + 1);
+                }
+            }));
+        }
+        writer.get();
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(list.get(0)).isEqualTo(20000);
+        assertThat(list.size()).isEqualTo(window);
+    }
+}
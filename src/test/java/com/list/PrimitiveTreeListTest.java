@@ -0,0 +1,81 @@
+package com.list;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the lists which keep primitive values unboxed
+ */
+public class PrimitiveTreeListTest {
+
+    @Test
+    public void testIntTreeList() throws Exception {
+        IntTreeList ints = new IntTreeList();
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(13);
+        for (int i = 0; i < 5000; i++) {
+            int index = random.nextInt(expected.size() + 1);
+            ints.addInt(index, i);
+            expected.add(index, i);
+        }
+        for (int i = 0; i < 4000; i++) {
+            int index = random.nextInt(expected.size());
+            assertThat(ints.removeAt(index)).isEqualTo((int) expected.remove(index));
+        }
+        assertThat(ints.setInt(0, -1)).isEqualTo((int) expected.set(0, -1));
+        assertThat(ints).containsExactlyElementsOf(expected);
+        assertThat(ints.getInt(500)).isEqualTo((int) expected.get(500));
+        assertThat(ints.indexOf(-1)).isEqualTo(0);
+        assertThat(ints.contains(5000)).isFalse();
+        assertThat(ints.intStream().sum()).isEqualTo(expected.stream().mapToInt(Integer::intValue).sum());
+        assertThat(ints.toIntArray()).containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+        assertThatThrownBy(() -> ints.getInt(1000)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> ints.add(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void testIntTreeListRemoveIf() throws Exception {
+        IntTreeList ints = new IntTreeList();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ints.addInt(i);
+            expected.add(i);
+        }
+        assertThat(ints.removeIf(x -> x % 3 == 0)).isEqualTo(expected.removeIf(x -> x % 3 == 0));
+        assertThat(ints.removeIf(x -> x % 3 == 0)).isFalse();
+        assertThat(ints).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void testLongTreeList() throws Exception {
+        LongTreeList longs = new LongTreeList(1L, 2L, 3L);
+        longs.addLong(1, Long.MAX_VALUE);
+        assertThat(longs.removeAt(0)).isEqualTo(1L);
+        assertThat(longs.toLongArray()).containsExactly(Long.MAX_VALUE, 2L, 3L);
+        assertThat(longs.longStream().max().getAsLong()).isEqualTo(Long.MAX_VALUE);
+        assertThat(longs.retainAll(Arrays.asList(2L, 3L))).isTrue();
+        assertThat(longs.removeAll(Arrays.asList(3L))).isTrue();
+        assertThat(longs.toLongArray()).containsExactly(2L);
+    }
+
+    @Test
+    public void testDoubleTreeList() throws Exception {
+        DoubleTreeList doubles = new DoubleTreeList(0.5, Double.NaN);
+        doubles.addDouble(-0.0);
+        assertThat(doubles.indexOf(Double.NaN)).isEqualTo(1);
+        assertThat(doubles.indexOf(0.0)).isEqualTo(-1);
+        assertThat(doubles.getDouble(2)).isEqualTo(-0.0);
+        assertThat(doubles.subList(0, 2)).containsExactly(0.5, Double.NaN);
+        assertThat(doubles.removeIf(x -> x.isNaN())).isTrue();
+        assertThat(doubles.toDoubleArray()).containsExactly(0.5, -0.0);
+        doubles.clear();
+        assertThat(doubles.doubleStream().count()).isZero();
+    }
+}
@@ -0,0 +1,88 @@
+package com.list;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the list which keeps its elements sorted
+ */
+public class SortedTreeListTest {
+
+    @Test
+    public void testSearches() throws Exception {
+        SortedTreeList<Integer> scores = new SortedTreeList<>();
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(25);
+        for (int i = 0; i < 5000; i++) {
+            int score = random.nextInt(1000);
+            scores.add(score);
+            expected.add(score);
+        }
+        for (int i = 0; i < 1000; i++) {
+            Integer score = random.nextInt(1000);
+            assertThat(scores.remove(score)).isEqualTo(expected.remove(score));
+        }
+        Collections.sort(expected);
+        assertThat(scores).containsExactlyElementsOf(expected);
+        for (int score = -1; score <= 1000; score++) {
+            int lower = 0;
+            while (lower < expected.size() && expected.get(lower) < score) {
+                lower++;
+            }
+            int upper = lower;
+            while (upper < expected.size() && expected.get(upper) == score) {
+                upper++;
+            }
+            assertThat(scores.rank(score)).isEqualTo(lower);
+            assertThat(scores.indexOf(score)).isEqualTo(lower < upper ? lower : -1);
+            assertThat(scores.lastIndexOf(score)).isEqualTo(lower < upper ? upper - 1 : -1);
+            assertThat(scores.contains(score)).isEqualTo(lower < upper);
+            assertThat(scores.floor(score)).isEqualTo(upper > 0 ? expected.get(upper - 1) : null);
+            assertThat(scores.ceiling(score)).isEqualTo(lower < expected.size() ? expected.get(lower) : null);
+        }
+        assertThat(scores.countInRange(100, 199)).isEqualTo((int) expected.stream().filter(s -> s >= 100 && s <= 199).count());
+        assertThat(scores.countInRange(500, 499)).isEqualTo(0);
+    }
+
+    @Test
+    public void testComparator() throws Exception {
+        SortedTreeList<String> names = new SortedTreeList<>(Arrays.asList("b", "d", "a"), Comparator.reverseOrder());
+        names.add("c");
+        assertThat(names).containsExactly("d", "c", "b", "a");
+        assertThat(names.floor("bb")).isEqualTo("c");
+        assertThat(names.ceiling("bb")).isEqualTo("b");
+        assertThat(names.rank("b")).isEqualTo(2);
+    }
+
+    @Test
+    public void testRemoval() throws Exception {
+        SortedTreeList<String> names = new SortedTreeList<>(Arrays.asList("b", "d", "a", "c"), Comparator.reverseOrder());
+        Iterator<String> iterator = names.iterator();
+        iterator.next();
+        iterator.remove();
+        assertThat(names).containsExactly("c", "b", "a");
+        names.removeIf(name -> name.equals("b"));
+        assertThat(names).containsExactly("c", "a");
+    }
+
+    @Test
+    public void testUnsupportedWrites() throws Exception {
+        SortedTreeList<String> names = new SortedTreeList<>(Arrays.asList("c", "b", "a"), Comparator.reverseOrder());
+        assertThatThrownBy(() -> names.add(0, "z")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> names.set(0, "z")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> names.listIterator().set("z")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> names.add(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> names.get(3)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThat(names).containsExactly("c", "b", "a");
+    }
+}
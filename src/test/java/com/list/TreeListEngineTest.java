@@ -0,0 +1,364 @@
+package com.list;
+
+import com.list.structure.ArrayRedBlackTree;
+import com.list.structure.AvlTree;
+import com.list.structure.ChunkedTree;
+import com.list.structure.MappedLongTree;
+import com.list.structure.OffHeapLongTree;
+import com.list.structure.PersistentRedBlackTree;
+import com.list.structure.RedBlackTree;
+import com.list.structure.Treap;
+import com.list.structure.interfaces.PositionalTree;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the engines a TreeList can run on
+ * Every engine goes through the same random run against an ArrayList, then its own features are tested apart
+ */
+public class TreeListEngineTest {
+
+    /**
+     * Runs random inserts, removes and sets on a list over the engine and on an ArrayList,
+     * then a range removal and writes through a list iterator, comparing the two lists after each step
+     * @param engine supplies the engine to run on
+     * @param values turns a number into a distinct value
+     * @return the list, holding the same values as the ArrayList
+     */
+    private static <E extends Comparable<E>> TreeList<E> checkAgainstArrayList(
+            Supplier<? extends PositionalTree<E>> engine, IntFunction<E> values) {
+        TreeList<E> list = new TreeList<>(engine.get());
+        List<E> expected = new ArrayList<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 3000; i++) {
+            int index = random.nextInt(expected.size() + 1);
+            list.add(index, values.apply(i));
+            expected.add(index, values.apply(i));
+        }
+        for (int i = 0; i < 2000; i++) {
+            int index = random.nextInt(expected.size());
+            assertThat(list.remove(index)).isEqualTo(expected.remove(index));
+        }
+        for (int i = 0; i < expected.size(); i += 7) {
+            assertThat(list.set(i, values.apply(-1 - i))).isEqualTo(expected.set(i, values.apply(-1 - i)));
+        }
+        assertThat(list).containsExactlyElementsOf(expected);
+        assertThat(list.indexOf(expected.get(500))).isEqualTo(500);
+
+        list.removeRange(100, 300);
+        expected.subList(100, 300).clear();
+        ListIterator<E> iterator = list.listIterator(50);
+        iterator.next();
+        iterator.remove();
+        iterator.add(values.apply(-1));
+        expected.remove(50);
+        expected.add(50, values.apply(-1));
+        assertThat(list.toArray()).containsExactly(expected.toArray());
+        return list;
+    }
+
+    @Test
+    public void testRedBlackTree() throws Exception {
+        checkAgainstArrayList(RedBlackTree::new, i -> i);
+    }
+
+    @Test
+    public void testChunkedTree() throws Exception {
+        checkAgainstArrayList(ChunkedTree::new, i -> i);
+    }
+
+    @Test
+    public void testPersistentTree() throws Exception {
+        checkAgainstArrayList(PersistentRedBlackTree::new, i -> i);
+    }
+
+    @Test
+    public void testArrayTree() throws Exception {
+        checkAgainstArrayList(ArrayRedBlackTree::new, i -> i);
+    }
+
+    @Test
+    public void testAvlTree() throws Exception {
+        checkAgainstArrayList(AvlTree::new, i -> i);
+    }
+
+    @Test
+    public void testTreap() throws Exception {
+        checkAgainstArrayList(() -> new Treap<Integer>(7), i -> i);
+    }
+
+    @Test
+    public void testOffHeapTree() throws Exception {
+        try (OffHeapLongTree tree = new OffHeapLongTree()) {
+            checkAgainstArrayList(() -> tree, i -> i * 3L);
+        }
+    }
+
+    @Test
+    public void testMappedTree() throws Exception {
+        Path file = Files.createTempFile("treelist", ".tl");
+        Files.delete(file);
+        try (MappedLongTree tree = MappedLongTree.open(file)) {
+            checkAgainstArrayList(() -> tree, i -> i * 3L);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testIteratorsFailFast() throws Exception {
+        List<Supplier<PositionalTree<Integer>>> engines = Arrays.asList(RedBlackTree::new, ChunkedTree::new,
+                ArrayRedBlackTree::new, AvlTree::new, Treap::new);
+        for (Supplier<PositionalTree<Integer>> engine : engines) {
+            TreeList<Integer> list = new TreeList<>(engine.get());
+            list.addAll(Arrays.asList(1, 2, 3));
+            Iterator<Integer> stale = list.iterator();
+            stale.next();
+            list.add(4);
+            assertThatThrownBy(stale::next).isInstanceOf(ConcurrentModificationException.class);
+        }
+    }
+
+    @Test
+    public void testChunkedTreeEmptiesAfterLoad() throws Exception {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(i);
+        }
+        TreeList<Integer> loaded = new TreeList<>(new ChunkedTree<Integer>());
+        loaded.addAll(values);
+        assertThat(loaded).containsExactlyElementsOf(values);
+        //removing from the middle merges and tops up the leaves until none are left
+        while (!loaded.isEmpty()) {
+            assertThat(loaded.remove(loaded.size() / 2)).isEqualTo(values.remove(values.size() / 2));
+        }
+        assertThat(loaded.iterator().hasNext()).isFalse();
+    }
+
+    @Test
+    public void testUnsupportedFeatures() throws Exception {
+        List<TreeList<Integer>> lists = Arrays.asList(new TreeList<>(new ChunkedTree<Integer>()),
+                new TreeList<>(new ArrayRedBlackTree<Integer>()), new TreeList<>(new AvlTree<Integer>()));
+        for (TreeList<Integer> list : lists) {
+            list.addAll(Arrays.asList(1, 2, 3));
+            assertThatThrownBy(() -> list.splitAt(1)).isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(list::snapshot).isInstanceOf(UnsupportedOperationException.class);
+        }
+        assertThatThrownBy(() -> lists.get(0).addAndGetHandle(1)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> new TreeList<Integer>().snapshot()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testPersistentSnapshot() throws Exception {
+        TreeList<Integer> persistent = new TreeList<>(new PersistentRedBlackTree<Integer>());
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(12);
+        for (int i = 0; i < 3000; i++) {
+            int index = random.nextInt(expected.size() + 1);
+            persistent.add(index, i);
+            expected.add(index, i);
+        }
+        TreeList<Integer> snapshot = persistent.snapshot();
+        List<Integer> snapshotExpected = new ArrayList<>(expected);
+        Iterator<Integer> iterator = persistent.iterator();
+        for (int i = 0; i < 2500; i++) {
+            int index = random.nextInt(expected.size());
+            assertThat(persistent.remove(index)).isEqualTo(expected.remove(index));
+        }
+        persistent.set(0, -1);
+        expected.set(0, -1);
+        assertThat(persistent).containsExactlyElementsOf(expected);
+        assertThat(snapshot).containsExactlyElementsOf(snapshotExpected);
+        //the iterator walks the version of the tree it was created on
+        for (Integer value : snapshotExpected) {
+            assertThat(iterator.next()).isEqualTo(value);
+        }
+
+        snapshot.clear();
+        assertThat(persistent.size()).isEqualTo(500);
+        persistent.addAll(Arrays.asList(1, 2));
+        assertThat(persistent.lastIndexOf(2)).isEqualTo(501);
+    }
+
+    @Test
+    public void testArrayTreeReusesSlots() throws Exception {
+        TreeList<Integer> array = new TreeList<>(new ArrayRedBlackTree<Integer>());
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(14);
+        for (int round = 0; round < 3; round++) {
+            //the removals free slots which the next round of inserts takes again
+            for (int i = 0; i < 2000; i++) {
+                int index = random.nextInt(expected.size() + 1);
+                array.add(index, i);
+                expected.add(index, i);
+            }
+            for (int i = 0; i < 1500; i++) {
+                int index = random.nextInt(expected.size());
+                assertThat(array.remove(index)).isEqualTo(expected.remove(index));
+            }
+            assertThat(array).containsExactlyElementsOf(expected);
+        }
+        array.set(10, -1);
+        assertThat(array.get(10)).isEqualTo(-1);
+        assertThat(array.indexOf(-1)).isEqualTo(10);
+    }
+
+    @Test
+    public void testArrayTreeLoads() throws Exception {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(i);
+        }
+        TreeList<Integer> loaded = new TreeList<>(new ArrayRedBlackTree<Integer>());
+        loaded.addAll(values);
+        loaded.add(0, 7);
+        loaded.remove(loaded.size() - 1);
+        assertThat(loaded.subList(1, loaded.size())).containsExactlyElementsOf(values.subList(0, values.size() - 1));
+
+        //loading nothing leaves only the nil slot, which the next add has to grow from
+        TreeList<Integer> empty = new TreeList<>(new ArrayRedBlackTree<Integer>());
+        empty.addAll(Collections.<Integer>emptyList());
+        empty.add(1);
+        empty.add(0, 2);
+        assertThat(empty).containsExactly(2, 1);
+        loaded.removeIf(x -> true);
+        assertThat(loaded).isEmpty();
+        for (int i = 0; i < 100; i++) {
+            loaded.add(i);
+        }
+        assertThat(loaded).hasSize(100);
+        assertThat(loaded.get(99)).isEqualTo(99);
+    }
+
+    @Test
+    public void testTreapSplitAndConcat() throws Exception {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(i);
+        }
+        TreeList<Integer> treap = new TreeList<>(new Treap<Integer>());
+        treap.addAll(values);
+        TreeList<Integer> tail = treap.splitAt(600);
+        assertThat(treap).containsExactlyElementsOf(values.subList(0, 600));
+        assertThat(tail).containsExactlyElementsOf(values.subList(600, 1000));
+        tail.concat(treap);
+        assertThat(treap).isEmpty();
+        assertThat(tail.get(400)).isEqualTo(0);
+        TreeList<Integer> avl = new TreeList<>(new AvlTree<Integer>());
+        assertThatThrownBy(() -> tail.concat(avl)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testOffHeapTreeSpillsPages() throws Exception {
+        List<Long> expected = new ArrayList<>();
+        Random random = new Random(15);
+        try (OffHeapLongTree tree = new OffHeapLongTree()) {
+            //enough values to spill over the first page of slots
+            for (int i = 0; i < 100000; i++) {
+                int index = random.nextInt(expected.size() + 1);
+                tree.addLong(index, i * 3L);
+                expected.add(index, i * 3L);
+            }
+            for (int i = 0; i < 50000; i++) {
+                int index = random.nextInt(expected.size());
+                assertThat(tree.removeLong(index)).isEqualTo((long) expected.remove(index));
+            }
+            tree.addLong(5, Long.MIN_VALUE);
+            expected.add(5, Long.MIN_VALUE);
+            assertThat(tree.getLong(5)).isEqualTo(Long.MIN_VALUE);
+            assertThat(new TreeList<>(tree)).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    public void testOffHeapTreeClose() throws Exception {
+        OffHeapLongTree tree = new OffHeapLongTree();
+        tree.load(new long[]{4, 5, 6});
+        assertThat(new TreeList<>(tree)).containsExactly(4L, 5L, 6L);
+        tree.close();
+        tree.close();
+        assertThatThrownBy(tree::size).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testMappedTreeReopens() throws Exception {
+        Path file = Files.createTempFile("treelist", ".tl");
+        Files.delete(file);
+        List<Long> expected = new ArrayList<>();
+        try (MappedLongTree tree = MappedLongTree.open(file)) {
+            TreeList<Long> mapped = new TreeList<>(tree);
+            for (long i = 0; i < 1000; i++) {
+                mapped.add(i);
+                expected.add(i);
+            }
+        }
+        Random random = new Random(16);
+        try (MappedLongTree tree = MappedLongTree.open(file)) {
+            TreeList<Long> mapped = new TreeList<>(tree);
+            assertThat(mapped.get(999)).isEqualTo(999L);
+            //edits land in the overlay until the list is compacted
+            for (int i = 0; i < 500; i++) {
+                int index = random.nextInt(expected.size());
+                assertThat(mapped.set(index, -1L - i)).isEqualTo(expected.set(index, -1L - i));
+                index = random.nextInt(expected.size() + 1);
+                mapped.add(index, (long) i);
+                expected.add(index, (long) i);
+                index = random.nextInt(expected.size());
+                assertThat(mapped.remove(index)).isEqualTo(expected.remove(index));
+            }
+            assertThat(mapped).containsExactlyElementsOf(expected);
+            tree.compact();
+            assertThat(mapped).containsExactlyElementsOf(expected);
+            mapped.add(0, 7L);
+            expected.add(0, 7L);
+        }
+        try (MappedLongTree tree = MappedLongTree.open(file)) {
+            assertThat(new TreeList<>(tree)).containsExactlyElementsOf(expected);
+            assertThat(Files.size(file)).isEqualTo(16 + 8L * expected.size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testMappedTreeClose() throws Exception {
+        Path file = Files.createTempFile("treelist", ".tl");
+        Files.delete(file);
+        try {
+            MappedLongTree tree = MappedLongTree.open(file);
+            tree.addLong(0, 1L);
+            Iterator<Long> stale = tree.iterator();
+            tree.close();
+            assertThatThrownBy(stale::next).isInstanceOf(IllegalStateException.class);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testMappedTreeRejectsOtherFiles() throws Exception {
+        Path file = Files.createTempFile("treelist", ".tl");
+        try {
+            Files.write(file, new byte[]{1, 2, 3});
+            assertThatThrownBy(() -> MappedLongTree.open(file)).isInstanceOf(IOException.class);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
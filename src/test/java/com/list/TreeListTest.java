@@ -2,13 +2,20 @@ package com.list;
 
 
 
+import com.list.structure.ChunkedTree;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.testng.Assert.assertEquals;
 
 /**
@@ -240,10 +247,25 @@ public class TreeListTest {
         list.add(4);
         list.add(5);
 
-        TreeList<Integer> newList = (TreeList<Integer>) list.subList(3,6);
+        List<Integer> newList = list.subList(3,7);
 
         assertThat(newList).hasSize(4);
         assertThat(newList.get(0)).isEqualTo(2);
+
+        newList.set(0, 20);
+        newList.add(4, 30);
+        assertThat(newList.remove(1)).isEqualTo(5);
+        assertThat(newList).containsExactly(20, 1, 2, 30);
+        assertThat(list.toArray()).containsExactly(10, 5, 6, 20, 1, 2, 30, 3, 4, 5);
+
+        newList.subList(1, 3).clear();
+        assertThat(newList).containsExactly(20, 30);
+        newList.clear();
+        assertThat(newList).isEmpty();
+        assertThat(list.toArray()).containsExactly(10, 5, 6, 3, 4, 5);
+
+        assertThatThrownBy(() -> list.subList(2, 7)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.subList(3, 2)).isInstanceOf(IllegalArgumentException.class);
     }
 
 
@@ -265,4 +287,319 @@ public class TreeListTest {
         iterator = list.listIterator(5);
         assertThat(iterator).hasSize(5);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBulkConstruction() throws Exception {
+        list = new TreeList<>(Arrays.asList(10, 5, 6, 2, 5, 1, 2));
+        assertThat(list.toArray()).containsExactly(10, 5, 6, 2, 5, 1, 2);
+        assertThat(list.get(3)).isEqualTo(2);
+        list.add(7);
+        assertThat(list.get(7)).isEqualTo(7);
+
+        list = new TreeList<>(new Integer[]{3, 4});
+        assertThat(list.toArray()).containsExactly(3, 4);
+
+        list = new TreeList<>();
+        list.addAll(Arrays.asList(1, 2, 3));
+        assertThat(list.toArray()).containsExactly(1, 2, 3);
+
+        assertThatThrownBy(() -> new TreeList<>(Arrays.asList(1, null)))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void testAddAllAtIndex() throws Exception {
+        list.addAll(Arrays.asList(10, 5, 6));
+        list.add(2);
+        assertThat(list.addAll(1, Arrays.asList(7, 8, 9))).isTrue();
+        assertThat(list.toArray()).containsExactly(10, 7, 8, 9, 5, 6, 2);
+        list.addAll(0, Arrays.asList(1));
+        list.addAll(list.size(), Arrays.asList(3, 4));
+        assertThat(list.toArray()).containsExactly(1, 10, 7, 8, 9, 5, 6, 2, 3, 4);
+        assertThat(list.addAll(4, Arrays.asList())).isFalse();
+
+        for (int i = 0; i < 20; i++) {
+            list.add(i, i);
+        }
+        assertThat(list.get(19)).isEqualTo(19);
+        assertThat(list.get(20)).isEqualTo(1);
+
+        assertThatThrownBy(() -> list.addAll(list.size() + 1, Arrays.asList(1)))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.addAll(0, Arrays.asList(1, null)))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void testSplitAtAndConcat() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+        TreeList<Integer> tail = list.splitAt(4);
+        assertThat(list.toArray()).containsExactly(0, 1, 2, 3);
+        assertThat(tail.toArray()).containsExactly(4, 5, 6, 7, 8, 9);
+        assertThat(tail.get(2)).isEqualTo(6);
+
+        tail.remove(0);
+        list.concat(tail);
+        assertThat(list.toArray()).containsExactly(0, 1, 2, 3, 5, 6, 7, 8, 9);
+        assertThat(list.size()).isEqualTo(9);
+        assertThat(tail.isEmpty()).isTrue();
+
+        assertThat(list.splitAt(list.size())).isEmpty();
+        assertThat(list.splitAt(0).toArray()).containsExactly(0, 1, 2, 3, 5, 6, 7, 8, 9);
+        assertThat(list).isEmpty();
+
+        assertThatThrownBy(() -> list.splitAt(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.concat(list)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testRemoveKeepsIndexes() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        for (int i = 0; i < 50; i++) {
+            assertThat(list.remove(i)).isEqualTo(2 * i);
+        }
+        for (int i = 0; i < 50; i++) {
+            assertThat(list.get(i)).isEqualTo(2 * i + 1);
+        }
+        assertThat(list.size()).isEqualTo(50);
+    }
+
+    @Test
+    public void testListIteratorWritesThrough() throws Exception {
+        list.addAll(Arrays.asList(1, 2, 3, 4, 5));
+        ListIterator<Integer> iterator = list.listIterator(2);
+        assertThat(iterator.previous()).isEqualTo(2);
+        iterator.set(20);
+        assertThat(iterator.next()).isEqualTo(20);
+        assertThat(iterator.next()).isEqualTo(3);
+        iterator.remove();
+        iterator.add(30);
+        assertThat(iterator.nextIndex()).isEqualTo(3);
+        assertThat(iterator.next()).isEqualTo(4);
+        assertThat(list.toArray()).containsExactly(1, 20, 30, 4, 5);
+
+        iterator = list.listIterator(list.size());
+        assertThat(iterator.hasNext()).isFalse();
+        assertThat(iterator.previous()).isEqualTo(5);
+
+        list.add(6);
+        ListIterator<Integer> stale = iterator;
+        assertThatThrownBy(stale::previous).isInstanceOf(ConcurrentModificationException.class);
+        assertThatThrownBy(() -> list.listIterator().set(1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testValueIndex() throws Exception {
+        list.addAll(Arrays.asList(1000, 2000, 3000, 2000, 4000));
+        list.setValueIndexed(true);
+        assertThat(list.isValueIndexed()).isTrue();
+        assertThat(list.indexOf(2000)).isEqualTo(1);
+        assertThat(list.lastIndexOf(2000)).isEqualTo(3);
+        assertThat(list.contains(4000)).isTrue();
+
+        list.add(0, 4000);
+        list.set(2, 5000);
+        assertThat(list.remove((Object) 2000)).isTrue();
+        assertThat(list.toArray()).containsExactly(4000, 1000, 5000, 3000, 4000);
+        assertThat(list.indexOf(2000)).isEqualTo(-1);
+        assertThat(list.contains(2000)).isFalse();
+        assertThat(list.lastIndexOf(4000)).isEqualTo(4);
+        assertThat(list.indexOf(5000)).isEqualTo(2);
+
+        TreeList<Integer> tail = list.splitAt(3);
+        assertThat(list.contains(3000)).isFalse();
+        assertThat(tail.isValueIndexed()).isTrue();
+        assertThat(tail.indexOf(4000)).isEqualTo(1);
+
+        list.setValueIndexed(false);
+        assertThat(list.indexOf(5000)).isEqualTo(2);
+        assertThat(list.lastIndexOf(1000)).isEqualTo(1);
+    }
+
+    @Test
+    public void testHandles() throws Exception {
+        list.addAll(Arrays.asList(10, 5, 6));
+        TreeList.Handle<Integer> handle = list.addAndGetHandle(5);
+        TreeList.Handle<Integer> first = list.handleAt(0);
+        assertThat(list.indexOf(handle)).isEqualTo(3);
+
+        list.add(0, 1);
+        list.addAll(1, Arrays.asList(2, 3));
+        list.remove(4);
+        assertThat(list.indexOf(handle)).isEqualTo(5);
+        assertThat(list.indexOf(first)).isEqualTo(3);
+        assertThat(list.handleAt(5)).isEqualTo(handle);
+        assertThat(list.handleAt(5).hashCode()).isEqualTo(handle.hashCode());
+
+        assertThat(list.set(handle, 7)).isEqualTo(5);
+        assertThat(list.get(5)).isEqualTo(7);
+        assertThat(list.remove(first)).isTrue();
+        assertThat(list.indexOf(first)).isEqualTo(-1);
+        assertThat(list.remove(first)).isFalse();
+        assertThat(list.toArray()).containsExactly(1, 2, 3, 6, 7);
+        assertThatThrownBy(() -> list.set(first, 1)).isInstanceOf(IllegalArgumentException.class);
+
+        TreeList<Integer> tail = list.splitAt(4);
+        assertThat(list.indexOf(handle)).isEqualTo(-1);
+        assertThat(tail.indexOf(handle)).isEqualTo(0);
+    }
+
+    @Test
+    public void testSpliterator() throws Exception {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            values.add(i);
+        }
+        TreeList<Integer> list = new TreeList<>(values);
+        assertThat(list.parallelStream().mapToLong(Integer::longValue).sum()).isEqualTo(49995000L);
+        assertThat(list.parallelStream().filter(i -> i % 3 == 0).collect(Collectors.toList()))
+                .containsExactlyElementsOf(values.stream().filter(i -> i % 3 == 0).collect(Collectors.toList()));
+
+        Spliterator<Integer> second = list.spliterator();
+        assertThat(second.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED)).isTrue();
+        Spliterator<Integer> first = second.trySplit();
+        assertThat(first.estimateSize()).isEqualTo(5000);
+        assertThat(second.estimateSize()).isEqualTo(5000);
+        assertThat(second.tryAdvance(value -> assertThat(value).isEqualTo(5000))).isTrue();
+        assertThat(second.trySplit()).isNull();
+        List<Integer> rest = new ArrayList<>();
+        first.forEachRemaining(rest::add);
+        assertThat(rest).containsExactlyElementsOf(values.subList(0, 5000));
+
+        TreeList<Integer> chunked = new TreeList<>(new ChunkedTree<Integer>());
+        chunked.addAll(values);
+        assertThat(chunked.parallelStream().mapToInt(Integer::intValue).max().getAsInt()).isEqualTo(9999);
+        Spliterator<Integer> stale = chunked.spliterator();
+        chunked.add(1);
+        assertThatThrownBy(() -> stale.forEachRemaining(value -> { })).isInstanceOf(ConcurrentModificationException.class);
+    }
+
+
+    @Test
+    public void testBulkOperations() throws Exception {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(i);
+        }
+        list.addAll(values);
+        TreeList.Handle<Integer> kept = list.handleAt(501);
+        TreeList.Handle<Integer> dropped = list.handleAt(500);
+
+        List<Integer> seen = new ArrayList<>();
+        list.forEach(seen::add);
+        assertThat(seen).containsExactlyElementsOf(values);
+        assertThat(list.toArray(new Integer[0])).containsExactlyElementsOf(values);
+        Integer[] larger = new Integer[1002];
+        Arrays.fill(larger, -1);
+        assertThat(list.toArray(larger)).isSameAs(larger);
+        assertThat(larger[999]).isEqualTo(999);
+        assertThat(larger[1000]).isNull();
+
+        assertThat(list.removeIf(i -> i % 2 == 0)).isTrue();
+        assertThat(list.removeIf(i -> i > 5000)).isFalse();
+        assertThat(list).hasSize(500).containsExactlyElementsOf(values.stream().filter(i -> i % 2 == 1).collect(Collectors.toList()));
+        assertThat(list.indexOf(kept)).isEqualTo(250);
+        assertThat(list.indexOf(dropped)).isEqualTo(-1);
+        assertThat(list.contains(500)).isFalse();
+        assertThat(list.indexOf(999)).isEqualTo(499);
+        list.add(0, -1);
+        assertThat(list.get(251)).isEqualTo(501);
+        assertThat(list.removeIf(i -> true)).isTrue();
+        assertThat(list).isEmpty();
+
+        list.addAll(values);
+        list.replaceAll(i -> i * 2);
+        assertThat(list.get(999)).isEqualTo(1998);
+        assertThatThrownBy(() -> list.replaceAll(i -> null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> list.forEach(i -> list.add(i))).isInstanceOf(ConcurrentModificationException.class);
+        assertThatThrownBy(() -> list.removeIf(i -> list.add(i))).isInstanceOf(ConcurrentModificationException.class);
+
+        TreeList<Integer> chunked = new TreeList<>(new ChunkedTree<Integer>());
+        chunked.addAll(values);
+        assertThat(chunked.removeIf(i -> i < 900)).isTrue();
+        chunked.replaceAll(i -> i - 900);
+        assertThat(chunked.toArray()).containsExactlyElementsOf(values.subList(0, 100));
+    }
+
+
+    @Test
+    public void testRemoveRange() throws Exception {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            values.add(i);
+        }
+        list.addAll(values);
+        TreeList.Handle<Integer> after = list.handleAt(90000);
+        list.removeRange(1000, 90000);
+        assertThat(list).hasSize(11000);
+        assertThat(list.get(999)).isEqualTo(999);
+        assertThat(list.get(1000)).isEqualTo(90000);
+        assertThat(list.indexOf(after)).isEqualTo(1000);
+        list.removeRange(5, 5);
+        list.removeRange(0, 10);
+        assertThat(list.get(0)).isEqualTo(10);
+        list.removeRange(10000, list.size());
+        assertThat(list).hasSize(10000);
+        list.add(-1);
+        assertThat(list.get(10000)).isEqualTo(-1);
+        assertThatThrownBy(() -> list.removeRange(-1, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.removeRange(3, 2)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.removeRange(0, 10002)).isInstanceOf(IndexOutOfBoundsException.class);
+
+        TreeList<Integer> chunked = new TreeList<>(new ChunkedTree<Integer>());
+        chunked.addAll(values.subList(0, 100));
+        chunked.removeRange(10, 90);
+        assertThat(chunked).containsExactlyElementsOf(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 90, 91, 92, 93, 94, 95, 96, 97, 98, 99));
+    }
+
+
+    @Test
+    public void testFingerSearch() throws Exception {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            values.add(i);
+        }
+        list.addAll(values);
+        for (int i = 0; i < values.size(); i++) {
+            assertThat(list.get(i)).isEqualTo(i);
+        }
+        for (int i = values.size() - 1; i >= 0; i -= 7) {
+            assertThat(list.get(i)).isEqualTo(i);
+        }
+        assertThat(list.get(2500)).isEqualTo(2500);
+        list.remove(2500);
+        assertThat(list.get(2500)).isEqualTo(2501);
+        list.add(2499, -1);
+        assertThat(list.get(2499)).isEqualTo(-1);
+        assertThat(list.get(2500)).isEqualTo(2499);
+        list.set(2501, -2);
+        assertThat(list.get(2501)).isEqualTo(-2);
+        TreeList<Integer> tail = list.splitAt(100);
+        assertThat(list.get(99)).isEqualTo(99);
+        assertThat(tail.get(0)).isEqualTo(100);
+        list.concat(tail);
+        assertThat(list.get(4999)).isEqualTo(4999);
+        assertThat(list.get(100)).isEqualTo(100);
+        assertThatThrownBy(() -> list.get(5000)).isInstanceOf(IndexOutOfBoundsException.class);
+        list.clear();
+        list.add(7);
+        assertThat(list.get(0)).isEqualTo(7);
+    }
+
+
+    @Test
+    public void testIteratorFailsFast() throws Exception {
+        list.addAll(Arrays.asList(1, 2, 3, 4));
+        Iterator<Integer> iterator = list.iterator();
+        assertThat(iterator.next()).isEqualTo(1);
+        list.remove(1);
+        assertThatThrownBy(iterator::next).isInstanceOf(ConcurrentModificationException.class);
+        iterator = list.iterator();
+        list.set(0, 5);
+        assertThat(iterator.next()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,81 @@
+package com.list.codec;
+
+import com.list.TreeList;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for writing lists to bytes and reading them back
+ */
+public class TreeListCodecTest {
+
+    @Test
+    public void testRoundTrips() throws Exception {
+        List<Integer> values = new ArrayList<>();
+        for (int i = -5000; i < 5000; i += 7) {
+            values.add(i);
+        }
+        values.add(Integer.MIN_VALUE);
+        values.add(Integer.MAX_VALUE);
+        TreeList<Integer> list = new TreeList<>(values);
+        TreeListCodec<Integer> codec = new TreeListCodec<>(ValueCodec.varInt());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(list, out);
+        //small values take at most two bytes, the extremes five
+        assertThat(out.size()).isLessThan(2 + 2 * values.size() + 10);
+        TreeList<Integer> read = codec.read(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(read).containsExactlyElementsOf(values);
+        read.add(0, 1);
+        assertThat(read.get(0)).isEqualTo(1);
+
+        TreeListCodec<Long> longs = new TreeListCodec<>(ValueCodec.varLong());
+        out.reset();
+        longs.write(new TreeList<>(Arrays.asList(Long.MIN_VALUE, -1L, 0L, Long.MAX_VALUE)), Channels.newChannel(out));
+        assertThat(longs.read(Channels.newChannel(new ByteArrayInputStream(out.toByteArray()))))
+                .containsExactly(Long.MIN_VALUE, -1L, 0L, Long.MAX_VALUE);
+
+        TreeListCodec<String> strings = new TreeListCodec<>(ValueCodec.utf8());
+        out.reset();
+        strings.write(new TreeList<String>(), out);
+        assertThat(out.toByteArray()).containsExactly(0);
+        out.reset();
+        strings.write(new TreeList<>(Arrays.asList("a", "", "\u00e9t\u00e9")), out);
+        assertThat(strings.read(new ByteArrayInputStream(out.toByteArray()))).containsExactly("a", "", "\u00e9t\u00e9");
+
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+        assertThatThrownBy(() -> strings.read(new ByteArrayInputStream(truncated))).isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    public void testStreamsOfLists() throws Exception {
+        TreeListCodec<Integer> codec = new TreeListCodec<>(ValueCodec.varInt());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(new TreeList<>(Arrays.asList(1, 2, 3)), out);
+        codec.write(new TreeList<>(Arrays.asList(4, 5)), out);
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        assertThat(codec.read(in)).containsExactly(1, 2, 3);
+        assertThat(codec.read(in)).containsExactly(4, 5);
+        assertThat(in.read()).isEqualTo(-1);
+
+        //a size near Integer.MAX_VALUE with no elements after it
+        byte[] corrupt = {(byte) 0xfe, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07};
+        assertThatThrownBy(() -> codec.read(new ByteArrayInputStream(corrupt))).isInstanceOf(EOFException.class);
+
+        //a ten byte size which sets the sign bit
+        byte[] negative = new byte[10];
+        Arrays.fill(negative, (byte) 0xff);
+        negative[9] = 0x01;
+        assertThatThrownBy(() -> codec.read(new ByteArrayInputStream(negative))).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.list.stats;
+
+import com.list.TreeList;
+import com.list.structure.ChunkedTree;
+import org.testng.annotations.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the metrics of a list, which the build enables with -Dcom.list.metrics=true
+ */
+public class TreeListMetricsTest {
+
+    @Test
+    public void testHistogram() throws Exception {
+        Histogram histogram = new Histogram();
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(0);
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getMax()).isEqualTo(1000);
+        assertThat(histogram.getMean()).isEqualTo(500.5);
+        assertThat(histogram.getValueAtPercentile(1)).isEqualTo(10);
+        assertThat(histogram.getValueAtPercentile(50)).isBetween(500L, 563L);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(1000);
+        for (long value : new long[]{0, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE}) {
+            long highest = Histogram.highestValueIn(Histogram.bucketOf(value));
+            assertThat(highest).isGreaterThanOrEqualTo(value);
+            assertThat(highest - value).isLessThanOrEqualTo(value / 8);
+        }
+    }
+
+    @Test
+    public void testListMetrics() throws Exception {
+        assertThat(TreeListMetrics.ENABLED).isTrue();
+        TreeList<Integer> list = new TreeList<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+        list.add(500, -1);
+        for (int i = 0; i < 100; i++) {
+            list.get(i * 10);
+        }
+        list.set(3, 3);
+        list.remove(0);
+        list.remove(Integer.valueOf(999));
+        list.indexOf(-5);
+        assertThat(list.contains(-1)).isTrue();
+
+        TreeListStats stats = list.stats();
+        assertThat(stats.getSize()).isEqualTo(999);
+        assertThat(stats.getCount(Operation.ADD)).isEqualTo(1001);
+        assertThat(stats.getCount(Operation.GET)).isEqualTo(100);
+        assertThat(stats.getCount(Operation.SET)).isEqualTo(1);
+        assertThat(stats.getCount(Operation.REMOVE)).isEqualTo(2);
+        assertThat(stats.getCount(Operation.SEARCH)).isEqualTo(2);
+        assertThat(stats.getWrites()).isEqualTo(1003);
+        assertThat(stats.getRotations()).isGreaterThan(0);
+        assertThat(stats.getRotationsPerWrite()).isGreaterThan(0);
+        assertThat(stats.getScans()).isEqualTo(3);
+        assertThat(stats.getSearches()).isGreaterThanOrEqualTo(100);
+        assertThat(stats.getMaxSearchDepth()).isGreaterThan(0);
+        assertThat(stats.getHeight()).isGreaterThan(0);
+        assertThat((double) stats.getHeight()).isLessThanOrEqualTo(stats.getHeightBound());
+        assertThat(stats.getLatency(Operation.GET, 50)).isLessThanOrEqualTo(stats.getMaxLatency(Operation.GET));
+        assertThat(stats.toString()).contains("GET[count=100");
+
+        list.get(0);
+        assertThat(stats.getCount(Operation.GET)).isEqualTo(100);
+        assertThat(new TreeList<>(new ChunkedTree<Integer>()).stats().getHeight()).isEqualTo(-1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMBean() throws Exception {
+        TreeList<Integer> list = new TreeList<>();
+        list.add(1);
+        list.get(0);
+        ObjectName name = list.registerStats("events");
+        try {
+            assertThat(name.getKeyProperty("type")).isEqualTo("TreeList");
+            assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Size")).isEqualTo(1);
+            list.add(2);
+            assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Size")).isEqualTo(2);
+            TreeListStatsMXBean bean = new TreeListStatsBean(() -> list.stats());
+            Map<String, Long> counts = bean.getOperationCounts();
+            assertThat(counts).containsEntry("ADD", 2L).containsEntry("GET", 1L);
+        } finally {
+            TreeListMetrics.unregister(name);
+        }
+        assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(name)).isFalse();
+    }
+}
@@ -0,0 +1,36 @@
+package com.list.structure;
+
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the overlay of the memory mapped list
+ */
+public class MappedLongTreeTest {
+
+    @Test
+    public void testChurnKeepsTheOverlaySmall() throws Exception {
+        Path file = Files.createTempFile("treelist", ".tl");
+        Files.delete(file);
+        try (MappedLongTree tree = MappedLongTree.open(file)) {
+            for (long i = 0; i < 1000; i++) {
+                tree.addLong(tree.size(), i);
+            }
+            //the list stays one piece, so only packing the buffer keeps it from growing
+            for (long i = 1000; i < 200000; i++) {
+                tree.addLong(tree.size(), i);
+                assertThat(tree.removeLong(0)).isEqualTo(i - 1000);
+            }
+            assertThat(tree.size()).isEqualTo(1000);
+            assertThat(tree.getLong(0)).isEqualTo(199000L);
+            assertThat(tree.getLong(999)).isEqualTo(199999L);
+            assertThat(tree.addedCapacity()).isLessThanOrEqualTo(4096);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
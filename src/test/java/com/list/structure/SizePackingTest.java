@@ -0,0 +1,41 @@
+package com.list.structure;
+
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the subtree sizes which share a word with the color of the node
+ */
+public class SizePackingTest {
+    private static final int[] LARGE_SIZES = {(1 << 30) - 1, 1 << 30, (1 << 30) + 5, Integer.MAX_VALUE};
+
+    @Test
+    public void testNodeKeepsLargeSizes() throws Exception {
+        Node<Integer> node = new Node<>(1);
+        for (int size : LARGE_SIZES) {
+            for (Node.Color color : Node.Color.values()) {
+                node.setColor(color);
+                node.setSize(size);
+                assertThat(node.getSize()).isEqualTo(size);
+                assertThat(node.getColor()).isEqualTo(color);
+            }
+        }
+    }
+
+    @Test
+    public void testOffHeapSlotKeepsLargeSizes() throws Exception {
+        try (OffHeapLongTree tree = new OffHeapLongTree()) {
+            tree.addLong(0, 7L);
+            int node = tree.root;
+            for (int size : LARGE_SIZES) {
+                for (boolean red : new boolean[]{false, true}) {
+                    tree.setRed(node, red);
+                    tree.setCount(node, size);
+                    assertThat(tree.count(node)).isEqualTo(size);
+                    assertThat(tree.isRed(node)).isEqualTo(red);
+                }
+            }
+        }
+    }
+}